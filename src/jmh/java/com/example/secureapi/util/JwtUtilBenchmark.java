@@ -0,0 +1,84 @@
+package com.example.secureapi.util;
+
+import io.jsonwebtoken.Claims;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.core.userdetails.UserDetails;
+
+import java.lang.reflect.Field;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class JwtUtilBenchmark {
+
+    // 0 disables the verified-claims cache, so every request pays for HMAC verification
+    @Param({"0", "10000"})
+    private int claimsCacheSize;
+
+    private JwtUtil jwtUtil;
+    private String token;
+    private UserDetails userDetails;
+
+    @Setup
+    public void setUp() throws Exception {
+        jwtUtil = new JwtUtil();
+        setField("secret", "benchmark-secret-key-that-is-long-enough-for-hs256-signing");
+        setField("expiration", 3_600_000L);
+        setField("claimsCacheSize", claimsCacheSize);
+        jwtUtil.init();
+
+        token = jwtUtil.generateToken("admin", Set.of("ADMIN"));
+        userDetails = new User("admin", "unused", List.of());
+    }
+
+    // The filter before single-pass parsing: username, expiration and roles each parsed the token again
+    @Benchmark
+    public void authenticateRequestThreeParses(Blackhole blackhole) {
+        blackhole.consume(jwtUtil.extractUsername(token));
+        blackhole.consume(jwtUtil.validateToken(token, userDetails));
+        blackhole.consume(jwtUtil.extractRoles(token));
+    }
+
+    // What JwtAuthenticationFilter does now for every authenticated request
+    @Benchmark
+    public void authenticateRequest(Blackhole blackhole) {
+        Claims claims = jwtUtil.parseToken(token);
+        blackhole.consume(claims.getSubject());
+        blackhole.consume(jwtUtil.validateToken(claims, userDetails));
+        blackhole.consume(jwtUtil.extractRoles(claims));
+    }
+
+    @Benchmark
+    public String parseUsername() {
+        return jwtUtil.extractUsername(token);
+    }
+
+    @Benchmark
+    public String generateToken() {
+        return jwtUtil.generateToken("admin", Set.of("ADMIN"));
+    }
+
+    private void setField(String name, Object value) throws ReflectiveOperationException {
+        Field field = JwtUtil.class.getDeclaredField(name);
+        field.setAccessible(true);
+        field.set(jwtUtil, value);
+    }
+}
@@ -0,0 +1,124 @@
+package com.shopserve.service;
+
+import com.shopserve.ShopserveApplication;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.util.FileSystemUtils;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+/**
+ * Boots the application with the prod persistence profile against a private file-backed database
+ * and seeds a synthetic catalog of the requested size, so benchmarks exercise the real repositories,
+ * pool and indexes rather than an in-memory store.
+ */
+final class CatalogFixture {
+
+    static final String[] CATEGORIES = {"Electronics", "Clothing", "Books", "Home & Garden"};
+    static final int BRAND_COUNT = 500;
+
+    private static final int INSERT_BATCH_SIZE = 5000;
+    static final long FIRST_PRODUCT_ID = 1_000_000L;
+    private static final String DATA_DIRECTORY_PROPERTY = "shopserve.bench.data-directory";
+
+    private CatalogFixture() {}
+
+    static ConfigurableApplicationContext start(int catalogSize, Map<String, Object> overrides) {
+        return start(catalogSize, overrides, WebApplicationType.NONE);
+    }
+
+    // Also starts the embedded web server on a random port, published as local.server.port
+    static ConfigurableApplicationContext startServer(int catalogSize, Map<String, Object> overrides) {
+        Map<String, Object> properties = new HashMap<>(overrides);
+        properties.putIfAbsent("server.port", "0");
+        return start(catalogSize, properties, WebApplicationType.SERVLET);
+    }
+
+    private static ConfigurableApplicationContext start(int catalogSize, Map<String, Object> overrides,
+                                                        WebApplicationType webApplicationType) {
+        Path dataDirectory;
+        try {
+            dataDirectory = Files.createTempDirectory("shopserve-bench");
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+
+        Map<String, Object> properties = new HashMap<>();
+        properties.put("spring.profiles.active", "prod");
+        properties.put("spring.datasource.url", "jdbc:h2:file:" + dataDirectory.resolve("catalog") + ";QUERY_CACHE_SIZE=64");
+        properties.put(DATA_DIRECTORY_PROPERTY, dataDirectory.toString());
+        properties.put("logging.level.root", "WARN");
+        properties.put("logging.level.com.shopserve", "WARN");
+        properties.put("logging.level.org.springframework.security", "WARN");
+        properties.put("shopserve.index.search.enabled", "false");
+        // Repeated benchmark queries would otherwise be answered from the query result cache, not the index or database
+        properties.put("shopserve.cache.query.max-result-size", "0");
+        properties.putAll(overrides);
+
+        // Passed as command-line arguments so they take precedence over the profile's own settings
+        String[] args = properties.entrySet().stream()
+                .map(property -> "--" + property.getKey() + "=" + property.getValue())
+                .toArray(String[]::new);
+        ConfigurableApplicationContext context = new SpringApplicationBuilder(ShopserveApplication.class)
+                .web(webApplicationType)
+                .run(args);
+
+        seed(context.getBean(JdbcTemplate.class), catalogSize);
+
+        // Indexes were built on startup from the sample data only
+        context.getBean(ProductIndexService.class).loadIndexes();
+        return context;
+    }
+
+    static void stop(ConfigurableApplicationContext context) {
+        String dataDirectory = context.getEnvironment().getProperty(DATA_DIRECTORY_PROPERTY);
+        context.close();
+        if (dataDirectory != null) {
+            FileSystemUtils.deleteRecursively(Path.of(dataDirectory).toFile());
+        }
+    }
+
+    private static void seed(JdbcTemplate jdbcTemplate, int catalogSize) {
+        Map<String, Long> categoryIds = new HashMap<>();
+        for (Map<String, Object> row : jdbcTemplate.queryForList("SELECT id, name FROM categories")) {
+            categoryIds.put((String) row.get("NAME"), ((Number) row.get("ID")).longValue());
+        }
+
+        Random random = new Random(42);
+        List<Object[]> batch = new ArrayList<>(INSERT_BATCH_SIZE);
+        for (int i = 0; i < catalogSize; i++) {
+            String category = CATEGORIES[random.nextInt(CATEGORIES.length)];
+            String brand = brand(random.nextInt(BRAND_COUNT));
+            double price = Math.round((1 + random.nextDouble() * 1999) * 100) / 100.0;
+            batch.add(new Object[]{
+                    FIRST_PRODUCT_ID + i,
+                    "Product " + i,
+                    brand,
+                    price,
+                    "Synthetic benchmark product " + i + " from " + brand,
+                    categoryIds.get(category)
+            });
+            if (batch.size() == INSERT_BATCH_SIZE || i == catalogSize - 1) {
+                jdbcTemplate.batchUpdate(
+                        "INSERT INTO products (id, name, brand, price, description, image_status, version, updated_at, category_id) " +
+                                "VALUES (?, ?, ?, ?, ?, 'NONE', 0, CURRENT_TIMESTAMP, ?)",
+                        batch);
+                batch.clear();
+            }
+        }
+    }
+
+    static String brand(int index) {
+        return "Brand-" + index;
+    }
+}
@@ -0,0 +1,82 @@
+package com.shopserve.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.shopserve.dto.ProductResponse;
+import com.shopserve.entity.Category;
+import com.shopserve.entity.Product;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xmx4g"})
+public class ProductServiceBenchmark {
+
+    @Param({"1000", "100000", "1000000"})
+    private int catalogSize;
+
+    // Serve /filter from the in-memory columnar index instead of the database
+    @Param({"false", "true"})
+    private boolean filterIndex;
+
+    private ConfigurableApplicationContext context;
+    private ProductService productService;
+    private ObjectMapper objectMapper;
+    private Product product;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = CatalogFixture.start(catalogSize, Map.of("shopserve.index.filter.enabled", String.valueOf(filterIndex)));
+        productService = context.getBean(ProductService.class);
+        objectMapper = context.getBean(ObjectMapper.class);
+
+        Category category = new Category("Electronics", "Electronic devices and gadgets");
+        product = new Product("MacBook Pro", "Apple", 1299.99, "High-performance laptop for professionals", category);
+        product.setId(1L);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        CatalogFixture.stop(context);
+    }
+
+    @Benchmark
+    public ProductResponse convertToResponse() {
+        return productService.convertToResponse(product);
+    }
+
+    @Benchmark
+    public List<ProductResponse> filterProductsByCategoryAndPrice() {
+        return productService.filterProducts("Electronics", null, 100.0, 150.0);
+    }
+
+    @Benchmark
+    public List<ProductResponse> filterProductsByBrand() {
+        return productService.filterProducts(null, CatalogFixture.brand(7), null, null);
+    }
+
+    @Benchmark
+    public void getAllProductsAsJson(Blackhole blackhole) throws Exception {
+        blackhole.consume(objectMapper.writeValueAsBytes(productService.getAllProducts()));
+    }
+}
@@ -0,0 +1,91 @@
+package com.shopserve.service;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Closed-loop HTTP load against the embedded server in platform-thread and virtual-thread mode.
+ * Every JMH thread is one client, and there are more clients than Tomcat worker threads, so the
+ * platform mode queues requests for a thread while the virtual mode queues them for a database
+ * connection. Virtual threads need a Java 21 runtime:
+ * mvn -Pjmh,java21 compile exec:exec -Djmh.args="ThreadingModeBenchmark"
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 10)
+@Threads(512)
+@Fork(value = 1, jvmArgsAppend = {"-Xmx4g"})
+public class ThreadingModeBenchmark {
+
+    private static final int CATALOG_SIZE = 100_000;
+
+    @Param({"false", "true"})
+    private boolean virtualThreads;
+
+    private ConfigurableApplicationContext context;
+    private HttpClient client;
+    private String baseUrl;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = CatalogFixture.startServer(CATALOG_SIZE, Map.of(
+                "spring.profiles.active", virtualThreads ? "prod,virtual" : "prod",
+                "shopserve.index.filter.enabled", "false"));
+        baseUrl = "http://localhost:" + context.getEnvironment().getProperty("local.server.port");
+        client = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .build();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        CatalogFixture.stop(context);
+    }
+
+    @Benchmark
+    public int getProductById() throws IOException, InterruptedException {
+        long id = CatalogFixture.FIRST_PRODUCT_ID + ThreadLocalRandom.current().nextInt(CATALOG_SIZE);
+        return get("/api/products/" + id);
+    }
+
+    // The fixture disables the query result cache and this benchmark the filter index, so every request
+    // is served from the database and holds a pooled connection for the length of the query
+    @Benchmark
+    public int filterProductsByBrand() throws IOException, InterruptedException {
+        int brand = ThreadLocalRandom.current().nextInt(CatalogFixture.BRAND_COUNT);
+        return get("/api/products/filter?brand=" + CatalogFixture.brand(brand));
+    }
+
+    private int get(String path) throws IOException, InterruptedException {
+        HttpRequest request = HttpRequest.newBuilder(URI.create(baseUrl + path)).GET().build();
+        HttpResponse<byte[]> response = client.send(request, HttpResponse.BodyHandlers.ofByteArray());
+        if (response.statusCode() != 200) {
+            throw new IllegalStateException("GET " + path + " returned " + response.statusCode());
+        }
+        return response.body().length;
+    }
+}
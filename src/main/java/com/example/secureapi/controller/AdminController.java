@@ -0,0 +1,31 @@
+package com.example.secureapi.controller;
+
+import com.example.secureapi.service.TokenRevocationService;
+import com.example.secureapi.service.UserService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+@RestController
+@RequestMapping("/admin/users")
+@CrossOrigin(origins = "*")
+public class AdminController {
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private TokenRevocationService tokenRevocationService;
+
+    // Invalidates every token issued to the user so far, e.g. after a role change or a compromised account
+    @PostMapping("/{username}/revoke-tokens")
+    public ResponseEntity<?> revokeTokens(@PathVariable String username) {
+        try {
+            userService.findByUsername(username);
+        } catch (Exception e) {
+            return ResponseEntity.notFound().build();
+        }
+        tokenRevocationService.revokeAllForUser(username);
+        return ResponseEntity.ok("All tokens revoked for user: " + username);
+    }
+}
@@ -3,8 +3,10 @@ package com.example.secureapi.controller;
 import com.example.secureapi.dto.AuthRequest;
 import com.example.secureapi.dto.AuthResponse;
 import com.example.secureapi.model.User;
+import com.example.secureapi.service.TokenRevocationService;
 import com.example.secureapi.service.UserService;
 import com.example.secureapi.util.JwtUtil;
+import io.jsonwebtoken.Claims;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.authentication.AuthenticationManager;
@@ -27,6 +29,9 @@ public class AuthController {
     @Autowired
     private JwtUtil jwtUtil;
 
+    @Autowired
+    private TokenRevocationService tokenRevocationService;
+
     @PostMapping("/register")
     public ResponseEntity<?> registerUser(@RequestBody AuthRequest authRequest) {
         try {
@@ -50,11 +55,26 @@ public class AuthController {
             );
 
             User user = userService.findByUsername(authRequest.getUsername());
-            final String token = jwtUtil.generateToken(user.getUsername(), user.getRoles());
+            final String token = jwtUtil.generateToken(user.getUsername(), user.getRoles(),
+                    tokenRevocationService.currentVersion(user.getUsername()));
 
             return ResponseEntity.ok(new AuthResponse(token));
         } catch (Exception e) {
             return ResponseEntity.badRequest().body("Authentication failed: " + e.getMessage());
         }
     }
+
+    @PostMapping("/logout")
+    public ResponseEntity<?> logout(@RequestHeader(value = "Authorization", required = false) String authHeader) {
+        if (authHeader == null || !authHeader.startsWith("Bearer ")) {
+            return ResponseEntity.badRequest().body("Logout failed: missing bearer token");
+        }
+        try {
+            Claims claims = jwtUtil.parseToken(authHeader.substring(7));
+            tokenRevocationService.revoke(claims);
+            return ResponseEntity.ok("Logged out successfully");
+        } catch (Exception e) {
+            return ResponseEntity.badRequest().body("Logout failed: " + e.getMessage());
+        }
+    }
 } 
\ No newline at end of file
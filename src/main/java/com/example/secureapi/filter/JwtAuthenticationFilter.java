@@ -1,12 +1,17 @@
 package com.example.secureapi.filter;
 
+import com.example.secureapi.service.TokenRevocationService;
 import com.example.secureapi.service.UserService;
 import com.example.secureapi.util.JwtUtil;
+import io.jsonwebtoken.Claims;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.context.SecurityContextHolder;
@@ -17,6 +22,7 @@ import org.springframework.web.filter.OncePerRequestFilter;
 
 import java.io.IOException;
 import java.util.Set;
+import java.util.concurrent.TimeUnit;
 import java.util.stream.Collectors;
 
 @Component
@@ -28,6 +34,21 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
     @Autowired
     private UserService userService;
 
+    @Autowired
+    private TokenRevocationService tokenRevocationService;
+
+    // Build the Authentication from verified claims alone instead of loading the user on every request
+    @Value("${jwt.stateless:false}")
+    private boolean stateless;
+
+    private final Timer validTokenTimer;
+    private final Timer invalidTokenTimer;
+
+    public JwtAuthenticationFilter(MeterRegistry meterRegistry) {
+        this.validTokenTimer = verificationTimer(meterRegistry, "valid");
+        this.invalidTokenTimer = verificationTimer(meterRegistry, "invalid");
+    }
+
     @Override
     protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
             throws ServletException, IOException {
@@ -43,14 +64,23 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
         jwt = authHeader.substring(7);
         try {
-            username = jwtUtil.extractUsername(jwt);
+            // Parse and verify the token once; every check below reads the same claims
+            Claims claims = verify(jwt);
+            username = claims.getSubject();
+
+            if (username != null && SecurityContextHolder.getContext().getAuthentication() == null
+                    && !tokenRevocationService.isRevoked(claims)) {
+                if (stateless) {
+                    authenticate(request, username, jwtUtil.extractRoles(claims));
+                    filterChain.doFilter(request, response);
+                    return;
+                }
 
-            if (username != null && SecurityContextHolder.getContext().getAuthentication() == null) {
                 UserDetails userDetails = this.userService.loadUserByUsername(username);
 
-                if (jwtUtil.validateToken(jwt, userDetails)) {
+                if (jwtUtil.validateToken(claims, userDetails)) {
                     // Extract roles from JWT
-                    Set<String> roles = jwtUtil.extractRoles(jwt);
+                    Set<String> roles = jwtUtil.extractRoles(claims);
                     var authorities = roles.stream()
                             .map(SimpleGrantedAuthority::new)
                             .collect(Collectors.toList());
@@ -70,4 +100,37 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
         filterChain.doFilter(request, response);
     }
-} 
\ No newline at end of file
+
+    private Claims verify(String jwt) {
+        long start = System.nanoTime();
+        try {
+            Claims claims = jwtUtil.parseToken(jwt);
+            validTokenTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            return claims;
+        } catch (RuntimeException e) {
+            invalidTokenTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            throw e;
+        }
+    }
+
+    private static Timer verificationTimer(MeterRegistry meterRegistry, String outcome) {
+        return Timer.builder("secureapi.jwt.verification")
+                .description("Time to parse and verify the signature of a bearer token")
+                .tag("outcome", outcome)
+                .register(meterRegistry);
+    }
+
+    private void authenticate(HttpServletRequest request, String username, Set<String> roles) {
+        var authorities = roles.stream()
+                .map(SimpleGrantedAuthority::new)
+                .collect(Collectors.toList());
+
+        UsernamePasswordAuthenticationToken authToken = new UsernamePasswordAuthenticationToken(
+                username,
+                null,
+                authorities
+        );
+        authToken.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
+        SecurityContextHolder.getContext().setAuthentication(authToken);
+    }
+}
\ No newline at end of file
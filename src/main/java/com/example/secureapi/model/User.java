@@ -22,6 +22,10 @@ public class User {
     @Column(name = "role")
     private Set<String> roles;
     
+    // Bumped to revoke every token issued so far; new tokens carry the current value
+    @Column(name = "token_version", nullable = false)
+    private int tokenVersion;
+    
     // Constructors
     public User() {}
     
@@ -63,4 +67,12 @@ public class User {
     public void setRoles(Set<String> roles) {
         this.roles = roles;
     }
+    
+    public int getTokenVersion() {
+        return tokenVersion;
+    }
+    
+    public void setTokenVersion(int tokenVersion) {
+        this.tokenVersion = tokenVersion;
+    }
 } 
\ No newline at end of file
@@ -0,0 +1,79 @@
+package com.example.secureapi.service;
+
+import com.example.secureapi.model.User;
+import com.example.secureapi.repository.UserRepository;
+import io.jsonwebtoken.Claims;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Date;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Token revocation checked from memory, so stateless authentication never has to query the database.
+ * Single tokens are deny-listed by their id until they would have expired anyway; all tokens of
+ * a user are revoked at once by bumping the user's token version, which is signed into new tokens.
+ * Token versions are persisted on the user and reloaded at startup; the deny-list is memory only.
+ */
+@Service
+public class TokenRevocationService {
+
+    public static final String TOKEN_VERSION_CLAIM = "ver";
+
+    private static final int PURGE_INTERVAL = 1000;
+
+    private final ConcurrentHashMap<String, Long> revokedTokenIds = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<String, Integer> userTokenVersions = new ConcurrentHashMap<>();
+    private final AtomicInteger revocationsSincePurge = new AtomicInteger();
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @PostConstruct
+    public void loadTokenVersions() {
+        for (Object[] row : userRepository.findRevokedTokenVersions()) {
+            userTokenVersions.put((String) row[0], ((Number) row[1]).intValue());
+        }
+    }
+
+    public void revoke(Claims claims) {
+        if (claims.getId() == null) {
+            return;
+        }
+        Date expiration = claims.getExpiration();
+        revokedTokenIds.put(claims.getId(), expiration != null ? expiration.getTime() : Long.MAX_VALUE);
+
+        if (revocationsSincePurge.incrementAndGet() >= PURGE_INTERVAL) {
+            revocationsSincePurge.set(0);
+            long now = System.currentTimeMillis();
+            revokedTokenIds.values().removeIf(expiresAt -> expiresAt <= now);
+        }
+    }
+
+    // Written to the database first, so a restart cannot make the revoked tokens valid again
+    @Transactional
+    public void revokeAllForUser(String username) {
+        User user = userRepository.findByUsername(username).orElse(null);
+        if (user == null) {
+            return;
+        }
+        user.setTokenVersion(user.getTokenVersion() + 1);
+        userRepository.save(user);
+        userTokenVersions.merge(username, user.getTokenVersion(), Math::max);
+    }
+
+    public int currentVersion(String username) {
+        return userTokenVersions.getOrDefault(username, 0);
+    }
+
+    public boolean isRevoked(Claims claims) {
+        if (claims.getId() != null && revokedTokenIds.containsKey(claims.getId())) {
+            return true;
+        }
+        Integer version = claims.get(TOKEN_VERSION_CLAIM, Integer.class);
+        return (version == null ? 0 : version) < currentVersion(claims.getSubject());
+    }
+}
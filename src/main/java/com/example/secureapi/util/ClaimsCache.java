@@ -0,0 +1,61 @@
+package com.example.secureapi.util;
+
+import io.jsonwebtoken.Claims;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Bounded map from token hash to already verified claims. Entries expire together with the
+ * token they came from, so a cached token can never outlive its own exp claim. When full, the
+ * least recently used entry makes room, so active tokens stay cached under churn.
+ */
+class ClaimsCache {
+
+    private final int maximumSize;
+    private final LinkedHashMap<String, Entry> entries = new LinkedHashMap<>(16, 0.75f, true);
+
+    ClaimsCache(int maximumSize) {
+        this.maximumSize = maximumSize;
+    }
+
+    synchronized Claims get(String tokenHash) {
+        Entry entry = entries.get(tokenHash);
+        if (entry == null) {
+            return null;
+        }
+        if (entry.expiresAt <= System.currentTimeMillis()) {
+            entries.remove(tokenHash);
+            return null;
+        }
+        return entry.claims;
+    }
+
+    synchronized void put(String tokenHash, Claims claims) {
+        if (maximumSize <= 0 || claims.getExpiration() == null) {
+            return;
+        }
+        entries.put(tokenHash, new Entry(claims, claims.getExpiration().getTime()));
+        if (entries.size() > maximumSize) {
+            // Expired tokens are never read again, so they drift to the eldest end and are evicted first
+            Iterator<Map.Entry<String, Entry>> eldest = entries.entrySet().iterator();
+            eldest.next();
+            eldest.remove();
+        }
+    }
+
+    synchronized void invalidate(String tokenHash) {
+        entries.remove(tokenHash);
+    }
+
+    private static class Entry {
+        private final Claims claims;
+        private final long expiresAt;
+
+        Entry(Claims claims, long expiresAt) {
+            this.claims = claims;
+            this.expiresAt = expiresAt;
+        }
+    }
+}
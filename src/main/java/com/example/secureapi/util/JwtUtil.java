@@ -1,17 +1,26 @@
 package com.example.secureapi.util;
 
+import com.example.secureapi.service.TokenRevocationService;
 import io.jsonwebtoken.*;
 import io.jsonwebtoken.security.Keys;
+import jakarta.annotation.PostConstruct;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.stereotype.Component;
 
 import javax.crypto.SecretKey;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Base64;
+import java.util.Collection;
 import java.util.Date;
 import java.util.HashMap;
 import java.util.Map;
 import java.util.Set;
+import java.util.UUID;
 import java.util.function.Function;
+import java.util.stream.Collectors;
 
 @Component
 public class JwtUtil {
@@ -22,8 +31,32 @@ public class JwtUtil {
     @Value("${jwt.expiration}")
     private Long expiration;
 
-    private SecretKey getSigningKey() {
-        return Keys.hmacShaKeyFor(secret.getBytes());
+    @Value("${jwt.claims-cache.max-size:10000}")
+    private int claimsCacheSize;
+
+    // Built once; both are immutable and thread-safe
+    private SecretKey signingKey;
+    private JwtParser jwtParser;
+    private ClaimsCache claimsCache;
+
+    @PostConstruct
+    public void init() {
+        signingKey = Keys.hmacShaKeyFor(secret.getBytes());
+        jwtParser = Jwts.parserBuilder()
+                .setSigningKey(signingKey)
+                .build();
+        claimsCache = new ClaimsCache(claimsCacheSize);
+    }
+
+    // Verifies the token once and returns its claims; repeated tokens are served from the cache without HMAC verification
+    public Claims parseToken(String token) {
+        String tokenHash = hash(token);
+        Claims claims = claimsCache.get(tokenHash);
+        if (claims == null) {
+            claims = jwtParser.parseClaimsJws(token).getBody();
+            claimsCache.put(tokenHash, claims);
+        }
+        return claims;
     }
 
     public String extractUsername(String token) {
@@ -31,8 +64,18 @@ public class JwtUtil {
     }
 
     public Set<String> extractRoles(String token) {
-        Claims claims = extractAllClaims(token);
-        return claims.get("roles", Set.class);
+        return extractRoles(parseToken(token));
+    }
+
+    // Roles are serialized as a JSON array, which deserializes to a List rather than a Set
+    public Set<String> extractRoles(Claims claims) {
+        Object roles = claims.get("roles");
+        if (roles instanceof Collection<?> values) {
+            return values.stream()
+                    .map(String::valueOf)
+                    .collect(Collectors.toSet());
+        }
+        return Set.of();
     }
 
     public Date extractExpiration(String token) {
@@ -40,25 +83,23 @@ public class JwtUtil {
     }
 
     public <T> T extractClaim(String token, Function<Claims, T> claimsResolver) {
-        final Claims claims = extractAllClaims(token);
+        final Claims claims = parseToken(token);
         return claimsResolver.apply(claims);
     }
 
-    private Claims extractAllClaims(String token) {
-        return Jwts.parserBuilder()
-                .setSigningKey(getSigningKey())
-                .build()
-                .parseClaimsJws(token)
-                .getBody();
+    private Boolean isTokenExpired(Claims claims) {
+        return claims.getExpiration().before(new Date());
     }
 
-    private Boolean isTokenExpired(String token) {
-        return extractExpiration(token).before(new Date());
+    public String generateToken(String username, Set<String> roles) {
+        return generateToken(username, roles, 0);
     }
 
-    public String generateToken(String username, Set<String> roles) {
+    // The token id and user token version let TokenRevocationService revoke tokens without a database lookup
+    public String generateToken(String username, Set<String> roles, int tokenVersion) {
         Map<String, Object> claims = new HashMap<>();
         claims.put("roles", roles);
+        claims.put(TokenRevocationService.TOKEN_VERSION_CLAIM, tokenVersion);
         return createToken(claims, username);
     }
 
@@ -66,14 +107,28 @@ public class JwtUtil {
         return Jwts.builder()
                 .setClaims(claims)
                 .setSubject(subject)
+                .setId(UUID.randomUUID().toString())
                 .setIssuedAt(new Date(System.currentTimeMillis()))
                 .setExpiration(new Date(System.currentTimeMillis() + expiration))
-                .signWith(getSigningKey(), SignatureAlgorithm.HS256)
+                .signWith(signingKey, SignatureAlgorithm.HS256)
                 .compact();
     }
 
     public Boolean validateToken(String token, UserDetails userDetails) {
-        final String username = extractUsername(token);
-        return (username.equals(userDetails.getUsername()) && !isTokenExpired(token));
+        return validateToken(parseToken(token), userDetails);
+    }
+
+    public Boolean validateToken(Claims claims, UserDetails userDetails) {
+        final String username = claims.getSubject();
+        return (username.equals(userDetails.getUsername()) && !isTokenExpired(claims));
+    }
+
+    private static String hash(String token) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return Base64.getEncoder().encodeToString(digest.digest(token.getBytes(StandardCharsets.US_ASCII)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
     }
-} 
\ No newline at end of file
+}
@@ -0,0 +1,56 @@
+package com.shopserve.cache;
+
+public class CacheStats {
+
+    private final String name;
+    private final int size;
+    private final int maximumSize;
+    private final long hits;
+    private final long misses;
+    private final long evictions;
+    private final long expirations;
+
+    public CacheStats(String name, int size, int maximumSize, long hits, long misses, long evictions, long expirations) {
+        this.name = name;
+        this.size = size;
+        this.maximumSize = maximumSize;
+        this.hits = hits;
+        this.misses = misses;
+        this.evictions = evictions;
+        this.expirations = expirations;
+    }
+
+    // Getters
+    public String getName() {
+        return name;
+    }
+
+    public int getSize() {
+        return size;
+    }
+
+    public int getMaximumSize() {
+        return maximumSize;
+    }
+
+    public long getHits() {
+        return hits;
+    }
+
+    public long getMisses() {
+        return misses;
+    }
+
+    public long getEvictions() {
+        return evictions;
+    }
+
+    public long getExpirations() {
+        return expirations;
+    }
+
+    public double getHitRatio() {
+        long requests = hits + misses;
+        return requests == 0 ? 0.0 : (double) hits / requests;
+    }
+}
@@ -0,0 +1,70 @@
+package com.shopserve.cache;
+
+import com.shopserve.dto.CategoryResponse;
+import com.shopserve.dto.ProductResponse;
+import com.shopserve.event.CatalogChangedEvent;
+import com.shopserve.event.CategoryChangedEvent;
+import com.shopserve.event.ProductChangedEvent;
+import com.shopserve.event.ProductIndexesReloadedEvent;
+import com.shopserve.service.ProductQuery;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+@Component
+public class CatalogCacheInvalidator {
+
+    @Autowired
+    private LruCache<Long, ProductResponse> productCache;
+
+    @Autowired
+    private LruCache<Long, CategoryResponse> categoryCache;
+
+    @Autowired
+    private LruCache<ProductQuery, List<Long>> productQueryCache;
+
+    @Autowired
+    private SingleFlight<ProductQuery, List<ProductResponse>> productQueryFlight;
+
+    @EventListener
+    public void onProductChanged(ProductChangedEvent event) {
+        productCache.invalidate(event.getProductId());
+
+        // Cached queries hold ids only, so a query is affected only if the product entered or left its result
+        ProductResponse previous = event.getPrevious();
+        ProductResponse current = event.getCurrent();
+        productQueryCache.invalidateKeysIf(query -> query.matches(previous) != query.matches(current));
+        productQueryFlight.invalidateAll();
+    }
+
+    @EventListener
+    public void onCatalogChanged(CatalogChangedEvent event) {
+        productCache.invalidateAll();
+        productQueryCache.invalidateAll();
+        productQueryFlight.invalidateAll();
+    }
+
+    // Queries served while the reload ran may have been answered from the old indexes
+    @EventListener
+    public void onIndexesReloaded(ProductIndexesReloadedEvent event) {
+        productQueryCache.invalidateAll();
+        productQueryFlight.invalidateAll();
+    }
+
+    @EventListener
+    public void onCategoryChanged(CategoryChangedEvent event) {
+        categoryCache.invalidate(event.getCategoryId());
+        productQueryFlight.invalidateAll();
+
+        // Cached products carry the category name, so a rename must drop the products filed under it
+        if (event.isRenamed()) {
+            String previousName = event.getPrevious().getName();
+            String currentName = event.getCurrent().getName();
+            productCache.invalidateIf(product -> previousName.equals(product.getCategoryName()));
+            productQueryCache.invalidateKeysIf(query ->
+                    query.filtersOnCategory(previousName) || query.filtersOnCategory(currentName));
+        }
+    }
+}
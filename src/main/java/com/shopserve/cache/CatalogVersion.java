@@ -0,0 +1,50 @@
+package com.shopserve.cache;
+
+import com.shopserve.event.CatalogChangedEvent;
+import com.shopserve.event.CategoryChangedEvent;
+import com.shopserve.event.ProductChangedEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.util.UUID;
+
+/**
+ * Validator for list responses: a generation number bumped on every catalog change. The boot nonce
+ * keeps tags from a previous process, whose counter started from the same value, from matching.
+ */
+@Component
+public class CatalogVersion {
+
+    private final String bootNonce = UUID.randomUUID().toString().substring(0, 8);
+
+    private long generation;
+    private long lastModified = System.currentTimeMillis();
+
+    @EventListener
+    public void onProductChanged(ProductChangedEvent event) {
+        bump();
+    }
+
+    @EventListener
+    public void onCategoryChanged(CategoryChangedEvent event) {
+        bump();
+    }
+
+    @EventListener
+    public void onCatalogChanged(CatalogChangedEvent event) {
+        bump();
+    }
+
+    public synchronized void bump() {
+        generation++;
+        lastModified = System.currentTimeMillis();
+    }
+
+    public synchronized String getETag() {
+        return "\"catalog-" + bootNonce + "-" + generation + "\"";
+    }
+
+    public synchronized long getLastModified() {
+        return lastModified;
+    }
+}
@@ -0,0 +1,125 @@
+package com.shopserve.cache;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.shopserve.event.CategoryChangedEvent;
+import com.shopserve.service.CategoryService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * The category list, serialized once and kept as JSON bytes plus a gzip-compressed copy.
+ * Categories change rarely, so the snapshot is rebuilt only after a category change commits
+ * and every read is a plain byte-array write.
+ */
+@Component
+public class CategoryListSnapshot {
+
+    @Autowired
+    private CategoryService categoryService;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    private volatile Snapshot current;
+
+    // A lock rather than a monitor, so a virtual thread waiting on the database here does not pin its carrier
+    private final ReentrantLock rebuildLock = new ReentrantLock();
+
+    public Snapshot get() {
+        Snapshot snapshot = current;
+        return snapshot != null ? snapshot : rebuild();
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onCategoryChanged(CategoryChangedEvent event) {
+        rebuild();
+    }
+
+    // Serialized so the last rebuild always reads the latest committed state
+    public Snapshot rebuild() {
+        rebuildLock.lock();
+        try {
+            byte[] json = objectMapper.writeValueAsBytes(categoryService.getAllCategories());
+            String tag = "categories-" + sha256(json).substring(0, 16);
+
+            // An unchanged list keeps its build time, so Last-Modified only moves when the content does
+            Snapshot previous = current;
+            long lastModified = previous != null && previous.tag.equals(tag)
+                    ? previous.lastModified
+                    : System.currentTimeMillis();
+            Snapshot snapshot = new Snapshot(json, gzip(json), tag, lastModified);
+            current = snapshot;
+            return snapshot;
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Failed to serialize categories", e);
+        } finally {
+            rebuildLock.unlock();
+        }
+    }
+
+    private static byte[] gzip(byte[] data) {
+        ByteArrayOutputStream buffer = new ByteArrayOutputStream(data.length / 4 + 64);
+        try (GZIPOutputStream gzip = new GZIPOutputStream(buffer)) {
+            gzip.write(data);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return buffer.toByteArray();
+    }
+
+    private static String sha256(byte[] data) {
+        try {
+            return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(data));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    public static class Snapshot {
+
+        private final byte[] json;
+        private final byte[] gzip;
+        private final String tag;
+        private final long lastModified;
+
+        Snapshot(byte[] json, byte[] gzip, String tag, long lastModified) {
+            this.json = json;
+            this.gzip = gzip;
+            this.tag = tag;
+            this.lastModified = lastModified;
+        }
+
+        public byte[] getJson() {
+            return json;
+        }
+
+        public byte[] getGzip() {
+            return gzip;
+        }
+
+        public String getETag() {
+            return "\"" + tag + "\"";
+        }
+
+        // The compressed body is a different representation, so it carries its own strong validator
+        public String getGzipETag() {
+            return "\"" + tag + "-gz\"";
+        }
+
+        public long getLastModified() {
+            return lastModified;
+        }
+    }
+}
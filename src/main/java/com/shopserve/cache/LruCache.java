@@ -0,0 +1,245 @@
+package com.shopserve.cache;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.function.Predicate;
+
+/**
+ * Bounded read-through cache with least-recently-used eviction and an optional time-to-live.
+ * Loaders run outside the lock; a value loaded while the cache was being invalidated is returned
+ * to the caller but not stored, so an invalidation can never be overwritten by a stale read.
+ */
+public class LruCache<K, V> {
+
+    private final String name;
+    private final int maximumSize;
+    private final long ttlNanos;
+
+    private final LinkedHashMap<K, Entry<V>> entries;
+    private long invalidations;
+
+    // Loads running outside the lock; invalidateKeysIf marks the matching ones stale instead of bumping the generation
+    private final Set<Load<K>> loads = new HashSet<>();
+
+    private long hits;
+    private long misses;
+    private long evictions;
+    private long expirations;
+
+    public LruCache(String name, int maximumSize, Duration ttl) {
+        if (maximumSize < 1) {
+            throw new IllegalArgumentException("Cache size must be positive");
+        }
+        this.name = name;
+        this.maximumSize = maximumSize;
+        this.ttlNanos = ttl == null || ttl.isZero() ? 0 : ttl.toNanos();
+        this.entries = new LinkedHashMap<>(16, 0.75f, true);
+    }
+
+    public V get(K key, Function<? super K, ? extends V> loader) {
+        Load<K> load;
+        synchronized (this) {
+            V value = lookup(key);
+            if (value != null) {
+                hits++;
+                return value;
+            }
+            misses++;
+            load = startLoad(List.of(key));
+        }
+
+        V loaded;
+        try {
+            loaded = loader.apply(key);
+        } catch (RuntimeException | Error e) {
+            synchronized (this) {
+                loads.remove(load);
+            }
+            throw e;
+        }
+        synchronized (this) {
+            if (finishLoad(load) && loaded != null) {
+                store(key, loaded);
+            }
+        }
+        return loaded;
+    }
+
+    // Serves what is cached and loads all misses with one loader call; keys the loader returns no value for are absent
+    public Map<K, V> getAll(Collection<? extends K> keys, Function<? super Set<K>, ? extends Map<K, V>> loader) {
+        Map<K, V> result = new HashMap<>();
+        Set<K> missing = new LinkedHashSet<>();
+        Load<K> load;
+        synchronized (this) {
+            for (K key : keys) {
+                if (result.containsKey(key) || missing.contains(key)) {
+                    continue;
+                }
+                V value = lookup(key);
+                if (value != null) {
+                    hits++;
+                    result.put(key, value);
+                } else {
+                    misses++;
+                    missing.add(key);
+                }
+            }
+            if (missing.isEmpty()) {
+                return result;
+            }
+            load = startLoad(missing);
+        }
+
+        Map<K, V> loaded;
+        try {
+            loaded = loader.apply(missing);
+        } catch (RuntimeException | Error e) {
+            synchronized (this) {
+                loads.remove(load);
+            }
+            throw e;
+        }
+        synchronized (this) {
+            if (finishLoad(load)) {
+                loaded.forEach((key, value) -> {
+                    if (value != null) {
+                        store(key, value);
+                    }
+                });
+            }
+        }
+        loaded.forEach((key, value) -> {
+            if (value != null) {
+                result.put(key, value);
+            }
+        });
+        return result;
+    }
+
+    public synchronized V getIfPresent(K key) {
+        V value = lookup(key);
+        if (value != null) {
+            hits++;
+        } else {
+            misses++;
+        }
+        return value;
+    }
+
+    public synchronized void put(K key, V value) {
+        store(key, value);
+    }
+
+    // Snapshot for putAll: values read from the source after this call may be stored only if nothing was invalidated since
+    public synchronized long generation() {
+        return invalidations;
+    }
+
+    public synchronized void putAll(Map<? extends K, ? extends V> values, long generation) {
+        if (generation == invalidations) {
+            values.forEach(this::store);
+        }
+    }
+
+    public synchronized void invalidate(K key) {
+        invalidations++;
+        entries.remove(key);
+    }
+
+    public synchronized void invalidateIf(Predicate<? super V> predicate) {
+        invalidations++;
+        entries.values().removeIf(entry -> predicate.test(entry.value));
+    }
+
+    // Only a removal moves the generation, so a write that touches no cached key leaves unrelated loads storable
+    public synchronized void invalidateKeysIf(Predicate<? super K> predicate) {
+        if (entries.keySet().removeIf(predicate)) {
+            invalidations++;
+        }
+        for (Load<K> load : loads) {
+            if (!load.stale && load.keys.stream().anyMatch(predicate)) {
+                load.stale = true;
+            }
+        }
+    }
+
+    public synchronized void invalidateAll() {
+        invalidations++;
+        entries.clear();
+    }
+
+    public synchronized CacheStats stats() {
+        return new CacheStats(name, entries.size(), maximumSize, hits, misses, evictions, expirations);
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    // Must be called with the lock held
+    private Load<K> startLoad(Collection<K> keys) {
+        Load<K> load = new Load<>(keys, invalidations);
+        loads.add(load);
+        return load;
+    }
+
+    // Must be called with the lock held; true if the loaded values may be stored
+    private boolean finishLoad(Load<K> load) {
+        loads.remove(load);
+        return !load.stale && load.generation == invalidations;
+    }
+
+    private V lookup(K key) {
+        Entry<V> entry = entries.get(key);
+        if (entry == null) {
+            return null;
+        }
+        if (ttlNanos > 0 && System.nanoTime() - entry.expiresAt > 0) {
+            entries.remove(key);
+            expirations++;
+            return null;
+        }
+        return entry.value;
+    }
+
+    private void store(K key, V value) {
+        long expiresAt = ttlNanos > 0 ? System.nanoTime() + ttlNanos : 0;
+        entries.put(key, new Entry<>(value, expiresAt));
+        if (entries.size() > maximumSize) {
+            Iterator<Map.Entry<K, Entry<V>>> eldest = entries.entrySet().iterator();
+            eldest.next();
+            eldest.remove();
+            evictions++;
+        }
+    }
+
+    private static class Load<K> {
+        private final Collection<K> keys;
+        private final long generation;
+        private boolean stale;
+
+        Load(Collection<K> keys, long generation) {
+            this.keys = keys;
+            this.generation = generation;
+        }
+    }
+
+    private static class Entry<V> {
+        private final V value;
+        private final long expiresAt;
+
+        Entry(V value, long expiresAt) {
+            this.value = value;
+            this.expiresAt = expiresAt;
+        }
+    }
+}
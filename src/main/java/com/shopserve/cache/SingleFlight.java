@@ -0,0 +1,152 @@
+package com.shopserve.cache;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * Coalesces concurrent executions of the same keyed call: the first caller runs the loader and
+ * every caller arriving while it is in flight waits for and shares its result or exception.
+ * A completed result can optionally be reused for a short window. Keys are spread over
+ * independently locked stripes, and the loader itself always runs outside any lock.
+ */
+public class SingleFlight<K, V> {
+
+    private static final int STRIPES = 64;
+    private static final int CLEANUP_THRESHOLD = 64;
+
+    private final String name;
+    private final long reuseNanos;
+    private final Stripe<K, V>[] stripes;
+
+    private final LongAdder executions = new LongAdder();
+    private final LongAdder coalesced = new LongAdder();
+
+    @SuppressWarnings("unchecked")
+    public SingleFlight(String name, Duration reuseWindow) {
+        this.name = name;
+        this.reuseNanos = reuseWindow == null || reuseWindow.isNegative() ? 0 : reuseWindow.toNanos();
+        this.stripes = new Stripe[STRIPES];
+        for (int i = 0; i < STRIPES; i++) {
+            stripes[i] = new Stripe<>();
+        }
+    }
+
+    public V execute(K key, Supplier<? extends V> loader) {
+        Stripe<K, V> stripe = stripeFor(key);
+        Call<V> call;
+        boolean leader = false;
+        stripe.lock.lock();
+        try {
+            long now = System.nanoTime();
+            call = stripe.calls.get(key);
+            if (call == null || call.isExpired(now)) {
+                if (stripe.calls.size() >= CLEANUP_THRESHOLD) {
+                    stripe.calls.values().removeIf(existing -> existing.isExpired(now));
+                }
+                call = new Call<>();
+                stripe.calls.put(key, call);
+                leader = true;
+            }
+        } finally {
+            stripe.lock.unlock();
+        }
+
+        if (!leader) {
+            coalesced.increment();
+            return call.await();
+        }
+
+        executions.increment();
+        boolean success = false;
+        try {
+            V value = loader.get();
+            call.result.complete(value);
+            success = true;
+            return value;
+        } catch (RuntimeException | Error e) {
+            call.result.completeExceptionally(e);
+            throw e;
+        } finally {
+            stripe.lock.lock();
+            try {
+                // Failures are never reused; the next caller retries
+                if (success && reuseNanos > 0) {
+                    call.expiresAt = System.nanoTime() + reuseNanos;
+                } else {
+                    stripe.calls.remove(key, call);
+                }
+            } finally {
+                stripe.lock.unlock();
+            }
+        }
+    }
+
+    // Detaches in-flight and reusable results so that callers arriving after a write start a fresh execution
+    public void invalidateAll() {
+        for (Stripe<K, V> stripe : stripes) {
+            stripe.lock.lock();
+            try {
+                stripe.calls.clear();
+            } finally {
+                stripe.lock.unlock();
+            }
+        }
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public long getExecutionCount() {
+        return executions.sum();
+    }
+
+    // Callers that were served by another caller's execution instead of running their own
+    public long getCoalescedCount() {
+        return coalesced.sum();
+    }
+
+    private Stripe<K, V> stripeFor(K key) {
+        int hash = key.hashCode();
+        hash ^= hash >>> 16;
+        return stripes[hash & (STRIPES - 1)];
+    }
+
+    private static class Stripe<K, V> {
+        private final ReentrantLock lock = new ReentrantLock();
+        private final Map<K, Call<V>> calls = new HashMap<>();
+    }
+
+    private static class Call<V> {
+        private final CompletableFuture<V> result = new CompletableFuture<>();
+
+        // Guarded by the stripe lock; stays at MAX_VALUE while the call is in flight
+        private long expiresAt = Long.MAX_VALUE;
+
+        boolean isExpired(long now) {
+            return expiresAt != Long.MAX_VALUE && now - expiresAt > 0;
+        }
+
+        V await() {
+            try {
+                return result.join();
+            } catch (CompletionException e) {
+                // Rethrow what the loader threw, so waiting callers see the same exception as the leader
+                Throwable cause = e.getCause();
+                if (cause instanceof RuntimeException runtimeException) {
+                    throw runtimeException;
+                }
+                if (cause instanceof Error error) {
+                    throw error;
+                }
+                throw e;
+            }
+        }
+    }
+}
@@ -0,0 +1,57 @@
+package com.shopserve.config;
+
+import com.shopserve.cache.LruCache;
+import com.shopserve.cache.SingleFlight;
+import com.shopserve.dto.CategoryResponse;
+import com.shopserve.dto.ProductResponse;
+import com.shopserve.service.ProductQuery;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+import java.util.List;
+
+@Configuration
+public class CacheConfig {
+
+    @Bean
+    public LruCache<Long, ProductResponse> productCache(
+            @Value("${shopserve.cache.product.max-size:10000}") int maxSize,
+            @Value("${shopserve.cache.product.ttl-seconds:0}") long ttlSeconds) {
+        return new LruCache<>("products", maxSize, Duration.ofSeconds(ttlSeconds));
+    }
+
+    @Bean
+    public LruCache<Long, CategoryResponse> categoryCache(
+            @Value("${shopserve.cache.category.max-size:1000}") int maxSize,
+            @Value("${shopserve.cache.category.ttl-seconds:0}") long ttlSeconds) {
+        return new LruCache<>("categories", maxSize, Duration.ofSeconds(ttlSeconds));
+    }
+
+    @Bean
+    public LruCache<ProductQuery, List<Long>> productQueryCache(
+            @Value("${shopserve.cache.query.max-size:1000}") int maxSize,
+            @Value("${shopserve.cache.query.ttl-seconds:0}") long ttlSeconds) {
+        return new LruCache<>("product-queries", maxSize, Duration.ofSeconds(ttlSeconds));
+    }
+
+    @Bean
+    public SingleFlight<ProductQuery, List<ProductResponse>> productQueryFlight(
+            @Value("${shopserve.cache.query-coalescing.reuse-window-ms:0}") long reuseWindowMs,
+            MeterRegistry meterRegistry) {
+        SingleFlight<ProductQuery, List<ProductResponse>> flight =
+                new SingleFlight<>("product-queries", Duration.ofMillis(reuseWindowMs));
+        FunctionCounter.builder("shopserve.singleflight.executions", flight, SingleFlight::getExecutionCount)
+                .description("Loader executions, one per group of coalesced callers")
+                .tag("name", flight.getName())
+                .register(meterRegistry);
+        FunctionCounter.builder("shopserve.singleflight.coalesced", flight, SingleFlight::getCoalescedCount)
+                .description("Callers served by a concurrent identical call instead of running their own")
+                .tag("name", flight.getName())
+                .register(meterRegistry);
+        return flight;
+    }
+}
@@ -30,6 +30,9 @@ public class SecurityConfig {
                 .requestMatchers(new AntPathRequestMatcher("/uploads/**")).permitAll()
                 .requestMatchers(new AntPathRequestMatcher("/api/products/**")).permitAll()
                 .requestMatchers(new AntPathRequestMatcher("/api/categories/**")).permitAll()
+                .requestMatchers(new AntPathRequestMatcher("/actuator/health")).permitAll()
+                .requestMatchers(new AntPathRequestMatcher("/actuator/prometheus")).permitAll()
+                .requestMatchers(new AntPathRequestMatcher("/actuator/**")).hasRole("ADMIN")
                 .anyRequest().authenticated()
             )
             .csrf(csrf -> csrf
@@ -1,19 +1,25 @@
 package com.shopserve.controller;
 
+import com.shopserve.cache.CategoryListSnapshot;
+import com.shopserve.dto.BulkUpdateResult;
 import com.shopserve.dto.CategoryRequest;
 import com.shopserve.dto.CategoryResponse;
+import com.shopserve.dto.EntityVersion;
 import com.shopserve.service.CategoryService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
-import java.util.List;
+import java.util.Locale;
 
 @RestController
 @RequestMapping("/api/categories")
@@ -23,18 +29,40 @@ public class CategoryController {
     @Autowired
     private CategoryService categoryService;
 
-    @GetMapping
+    @Autowired
+    private CategoryListSnapshot categoryListSnapshot;
+
+    @GetMapping(produces = MediaType.APPLICATION_JSON_VALUE)
     @Operation(summary = "Get all categories", description = "Retrieve a list of all product categories")
-    public ResponseEntity<List<CategoryResponse>> getAllCategories() {
-        List<CategoryResponse> categories = categoryService.getAllCategories();
-        return ResponseEntity.ok(categories);
+    public ResponseEntity<byte[]> getAllCategories(
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding,
+            WebRequest webRequest) {
+        // Served from a pre-serialized snapshot; the body is written as-is without touching the database or Jackson
+        CategoryListSnapshot.Snapshot snapshot = categoryListSnapshot.get();
+        boolean gzip = acceptsGzip(acceptEncoding);
+        if (webRequest.checkNotModified(gzip ? snapshot.getGzipETag() : snapshot.getETag(), snapshot.getLastModified())) {
+            return null;
+        }
+
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_JSON)
+                .header(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+        if (gzip) {
+            return response.header(HttpHeaders.CONTENT_ENCODING, "gzip").body(snapshot.getGzip());
+        }
+        return response.body(snapshot.getJson());
     }
 
     @GetMapping("/{id}")
     @Operation(summary = "Get category by ID", description = "Retrieve a specific category by its ID")
     public ResponseEntity<CategoryResponse> getCategoryById(
-            @Parameter(description = "Category ID") @PathVariable Long id) {
-        CategoryResponse category = categoryService.getCategoryById(id);
+            @Parameter(description = "Category ID") @PathVariable Long id, WebRequest webRequest) {
+        // Revalidation is answered from the version column; the category is only loaded when it changed
+        EntityVersion version = categoryService.getCategoryVersion(id);
+        if (webRequest.checkNotModified("\"c" + id + "-" + version.getTag() + "\"", version.getLastModifiedMillis())) {
+            return null;
+        }
+        CategoryResponse category = categoryService.getCategoryById(id, version.getVersion());
         return ResponseEntity.ok(category);
     }
 
@@ -57,6 +85,25 @@ public class CategoryController {
         return ResponseEntity.ok(category);
     }
 
+    @PostMapping("/{id}/products/move")
+    @PreAuthorize("hasRole('ADMIN')")
+    @Operation(summary = "Move category products", description = "Reassign all products of a category to another category in one bulk update (Admin only)")
+    public ResponseEntity<BulkUpdateResult> moveProducts(
+            @Parameter(description = "Source category ID") @PathVariable Long id,
+            @Parameter(description = "Target category ID") @RequestParam Long targetCategoryId) {
+        BulkUpdateResult result = categoryService.moveProducts(id, targetCategoryId);
+        return ResponseEntity.ok(result);
+    }
+
+    @DeleteMapping("/{id}/products")
+    @PreAuthorize("hasRole('ADMIN')")
+    @Operation(summary = "Delete category products", description = "Delete all products of a category in one bulk delete (Admin only)")
+    public ResponseEntity<BulkUpdateResult> deleteProducts(
+            @Parameter(description = "Category ID") @PathVariable Long id) {
+        BulkUpdateResult result = categoryService.deleteProducts(id);
+        return ResponseEntity.ok(result);
+    }
+
     @DeleteMapping("/{id}")
     @PreAuthorize("hasRole('ADMIN')")
     @Operation(summary = "Delete category", description = "Delete a category (Admin only)")
@@ -65,4 +112,17 @@ public class CategoryController {
         categoryService.deleteCategory(id);
         return ResponseEntity.noContent().build();
     }
-} 
\ No newline at end of file
+
+    private static boolean acceptsGzip(String acceptEncoding) {
+        if (acceptEncoding == null) {
+            return false;
+        }
+        for (String coding : acceptEncoding.toLowerCase(Locale.ROOT).split(",")) {
+            String[] parts = coding.trim().split(";");
+            if (parts[0].trim().equals("gzip")) {
+                return parts.length == 1 || !parts[1].replace(" ", "").matches("q=0(\\.0*)?");
+            }
+        }
+        return false;
+    }
+}
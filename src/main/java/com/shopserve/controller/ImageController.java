@@ -0,0 +1,58 @@
+package com.shopserve.controller;
+
+import com.shopserve.image.ImageVariantCache;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.Resource;
+import org.springframework.http.CacheControl;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.nio.file.Path;
+import java.time.Duration;
+
+// Requests without w or h fall through to the static /uploads/** resource handler in WebConfig
+@RestController
+@RequestMapping("/uploads")
+@Tag(name = "Image Controller", description = "Resized renditions of uploaded product images")
+public class ImageController {
+
+    @Autowired
+    private ImageVariantCache imageVariantCache;
+
+    @GetMapping(value = "/{filename:.+}", params = "w")
+    @Operation(summary = "Get resized image", description = "Scale an uploaded image to fit within w x h, preserving aspect ratio")
+    public ResponseEntity<Resource> getResizedByWidth(
+            @PathVariable String filename,
+            @Parameter(description = "Maximum width in pixels") @RequestParam(value = "w") Integer width,
+            @Parameter(description = "Maximum height in pixels") @RequestParam(value = "h", required = false) Integer height,
+            @Parameter(description = "Output format: jpeg, png or webp (default: source format)") @RequestParam(value = "fmt", required = false) String format) {
+        return variant(filename, width, height, format);
+    }
+
+    @GetMapping(value = "/{filename:.+}", params = {"h", "!w"})
+    @Operation(summary = "Get image resized by height", description = "Scale an uploaded image to the given height, preserving aspect ratio")
+    public ResponseEntity<Resource> getResizedByHeight(
+            @PathVariable String filename,
+            @Parameter(description = "Maximum height in pixels") @RequestParam(value = "h") Integer height,
+            @Parameter(description = "Output format: jpeg, png or webp (default: source format)") @RequestParam(value = "fmt", required = false) String format) {
+        return variant(filename, null, height, format);
+    }
+
+    private ResponseEntity<Resource> variant(String filename, Integer width, Integer height, String format) {
+        Path variant = imageVariantCache.getVariant(filename, width, height, format);
+        // Originals are named by content hash, so a rendition of one never changes
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(ImageVariantCache.contentTypeOf(variant)))
+                .cacheControl(CacheControl.maxAge(Duration.ofDays(365)).cachePublic().immutable())
+                .body(new FileSystemResource(variant));
+    }
+}
@@ -0,0 +1,76 @@
+package com.shopserve.controller;
+
+import com.shopserve.dto.PercentPriceChangeRequest;
+import com.shopserve.dto.PriceChangeBatchResponse;
+import com.shopserve.dto.PriceChangeResponse;
+import com.shopserve.service.PriceUpdateService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.validation.Valid;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.io.IOException;
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/pricing")
+@Tag(name = "Pricing Controller", description = "Bulk repricing with an auditable change log")
+public class PricingController {
+
+    @Autowired
+    private PriceUpdateService priceUpdateService;
+
+    @PostMapping("/percent")
+    @PreAuthorize("hasRole('ADMIN')")
+    @Operation(summary = "Apply a percentage change", description = "Change the price of every product matching the optional category and brand " +
+            "by a percentage, rounded to cents (Admin only)")
+    public ResponseEntity<PriceChangeBatchResponse> applyPercentChange(@Valid @RequestBody PercentPriceChangeRequest request) {
+        return ResponseEntity.ok(priceUpdateService.applyPercentChange(request));
+    }
+
+    @PostMapping(value = "/price-list", consumes = "text/csv")
+    @PreAuthorize("hasRole('ADMIN')")
+    @Operation(summary = "Apply a price list", description = "Set absolute prices from a CSV body of productId,price lines. " +
+            "The whole list is validated before any price changes; unknown product ids are ignored (Admin only)")
+    public ResponseEntity<PriceChangeBatchResponse> applyPriceList(
+            @Parameter(description = "Description recorded on the batch") @RequestParam(required = false) String description,
+            HttpServletRequest request) throws IOException {
+        return ResponseEntity.ok(priceUpdateService.applyPriceList(request.getInputStream(), description));
+    }
+
+    @GetMapping("/batches")
+    @PreAuthorize("hasRole('ADMIN')")
+    @Operation(summary = "List price change batches", description = "The 50 most recent repricing runs, newest first (Admin only)")
+    public ResponseEntity<List<PriceChangeBatchResponse>> getBatches() {
+        return ResponseEntity.ok(priceUpdateService.getRecentBatches());
+    }
+
+    @GetMapping("/batches/{id}")
+    @PreAuthorize("hasRole('ADMIN')")
+    @Operation(summary = "Get price change batch", description = "Status and size of one repricing run (Admin only)")
+    public ResponseEntity<PriceChangeBatchResponse> getBatch(@Parameter(description = "Batch ID") @PathVariable Long id) {
+        return ResponseEntity.ok(priceUpdateService.getBatch(id));
+    }
+
+    @GetMapping("/batches/{id}/changes")
+    @PreAuthorize("hasRole('ADMIN')")
+    @Operation(summary = "List price changes of a batch", description = "Old and new price per product, in product id order; " +
+            "pass the last product id seen as afterProductId to fetch the next page (Admin only)")
+    public ResponseEntity<List<PriceChangeResponse>> getChanges(
+            @Parameter(description = "Batch ID") @PathVariable Long id,
+            @Parameter(description = "Return changes for product ids greater than this") @RequestParam(required = false) Long afterProductId,
+            @Parameter(description = "Page size (max 1000)") @RequestParam(required = false) Integer size) {
+        return ResponseEntity.ok(priceUpdateService.getChanges(id, afterProductId, size));
+    }
+}
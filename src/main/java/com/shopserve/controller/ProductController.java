@@ -1,19 +1,34 @@
 package com.shopserve.controller;
 
+import com.shopserve.cache.CatalogVersion;
+import com.shopserve.dto.EntityVersion;
+import com.shopserve.dto.ProductBatchResponse;
+import com.shopserve.dto.ProductFacetsResponse;
+import com.shopserve.dto.ProductImportResult;
+import com.shopserve.dto.ProductPageResponse;
 import com.shopserve.dto.ProductRequest;
 import com.shopserve.dto.ProductResponse;
+import com.shopserve.exception.ValidationException;
+import com.shopserve.service.ProductExportService;
+import com.shopserve.service.ProductImportService;
 import com.shopserve.service.ProductService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.IOException;
 import java.util.List;
 
 @RestController
@@ -24,18 +39,76 @@ public class ProductController {
     @Autowired
     private ProductService productService;
 
+    @Autowired
+    private ProductExportService productExportService;
+
+    @Autowired
+    private ProductImportService productImportService;
+
+    @Autowired
+    private CatalogVersion catalogVersion;
+
     @GetMapping
     @Operation(summary = "Get all products", description = "Retrieve a list of all products")
-    public ResponseEntity<List<ProductResponse>> getAllProducts() {
+    public ResponseEntity<List<ProductResponse>> getAllProducts(WebRequest webRequest) {
+        if (notModified(webRequest)) {
+            return null;
+        }
         List<ProductResponse> products = productService.getAllProducts();
         return ResponseEntity.ok(products);
     }
 
+    @GetMapping("/page")
+    @Operation(summary = "Get products page", description = "Retrieve products one page at a time using an opaque continuation cursor")
+    public ResponseEntity<ProductPageResponse> getProductPage(
+            @Parameter(description = "Cursor returned as nextCursor by the previous page") @RequestParam(required = false) String cursor,
+            @Parameter(description = "Page size (1-100, default 20)") @RequestParam(required = false) Integer size,
+            @Parameter(description = "Sort field: id, price or name (default id)") @RequestParam(required = false) String sort,
+            WebRequest webRequest) {
+        if (notModified(webRequest)) {
+            return null;
+        }
+        ProductPageResponse page = productService.getProductPage(cursor, size, sort);
+        return ResponseEntity.ok(page);
+    }
+
+    @GetMapping("/export")
+    @Operation(summary = "Export catalog", description = "Stream every product as newline-delimited JSON without buffering the catalog in memory")
+    public ResponseEntity<StreamingResponseBody> exportProducts(
+            @Parameter(description = "Export format (only ndjson is supported)") @RequestParam(defaultValue = "ndjson") String format) {
+        if (!"ndjson".equalsIgnoreCase(format)) {
+            throw new ValidationException("Unsupported export format '" + format + "'. Use ndjson");
+        }
+
+        StreamingResponseBody body = outputStream -> productExportService.exportNdjson(outputStream);
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"products.ndjson\"")
+                .body(body);
+    }
+
+    @GetMapping("/batch")
+    @Operation(summary = "Get products by IDs", description = "Resolve up to 500 products in one call. Items are returned in request order; " +
+            "ids that do not exist are marked found=false")
+    public ResponseEntity<ProductBatchResponse> getProductsByIds(
+            @Parameter(description = "Comma-separated product IDs") @RequestParam List<Long> ids, WebRequest webRequest) {
+        if (notModified(webRequest)) {
+            return null;
+        }
+        ProductBatchResponse products = productService.getProductsByIds(ids);
+        return ResponseEntity.ok(products);
+    }
+
     @GetMapping("/{id}")
     @Operation(summary = "Get product by ID", description = "Retrieve a specific product by its ID")
     public ResponseEntity<ProductResponse> getProductById(
-            @Parameter(description = "Product ID") @PathVariable Long id) {
-        ProductResponse product = productService.getProductById(id);
+            @Parameter(description = "Product ID") @PathVariable Long id, WebRequest webRequest) {
+        // Revalidation is answered from the version column; the product is only loaded when it changed
+        EntityVersion version = productService.getProductVersion(id);
+        if (webRequest.checkNotModified("\"p" + id + "-" + version.getTag() + "\"", version.getLastModifiedMillis())) {
+            return null;
+        }
+        ProductResponse product = productService.getProductById(id, version.getVersion());
         return ResponseEntity.ok(product);
     }
 
@@ -45,15 +118,51 @@ public class ProductController {
             @Parameter(description = "Category name") @RequestParam(required = false) String category,
             @Parameter(description = "Brand name") @RequestParam(required = false) String brand,
             @Parameter(description = "Minimum price") @RequestParam(required = false) Double minPrice,
-            @Parameter(description = "Maximum price") @RequestParam(required = false) Double maxPrice) {
+            @Parameter(description = "Maximum price") @RequestParam(required = false) Double maxPrice,
+            WebRequest webRequest) {
+        if (notModified(webRequest)) {
+            return null;
+        }
         List<ProductResponse> products = productService.filterProducts(category, brand, minPrice, maxPrice);
         return ResponseEntity.ok(products);
     }
 
+    @GetMapping("/facets")
+    @Operation(summary = "Product facets", description = "Count products matching the filter per category, brand and price bucket")
+    public ResponseEntity<ProductFacetsResponse> getProductFacets(
+            @Parameter(description = "Category name") @RequestParam(required = false) String category,
+            @Parameter(description = "Brand name") @RequestParam(required = false) String brand,
+            @Parameter(description = "Minimum price") @RequestParam(required = false) Double minPrice,
+            @Parameter(description = "Maximum price") @RequestParam(required = false) Double maxPrice,
+            @Parameter(description = "Width of each price bucket (default 100)") @RequestParam(required = false) Double bucketWidth,
+            WebRequest webRequest) {
+        if (notModified(webRequest)) {
+            return null;
+        }
+        ProductFacetsResponse facets = productService.getProductFacets(category, brand, minPrice, maxPrice, bucketWidth);
+        return ResponseEntity.ok(facets);
+    }
+
+    @GetMapping("/search")
+    @Operation(summary = "Search products", description = "Full-text search over product name, brand and description, ranked by relevance")
+    public ResponseEntity<List<ProductResponse>> searchProducts(
+            @Parameter(description = "Search text; the last word also matches as a prefix") @RequestParam String q,
+            @Parameter(description = "Maximum number of results (1-100, default 20)") @RequestParam(required = false) Integer limit,
+            WebRequest webRequest) {
+        if (notModified(webRequest)) {
+            return null;
+        }
+        List<ProductResponse> products = productService.searchProducts(q, limit);
+        return ResponseEntity.ok(products);
+    }
+
     @GetMapping("/category/{categoryName}")
     @Operation(summary = "Get products by category", description = "Retrieve products by category name")
     public ResponseEntity<List<ProductResponse>> getProductsByCategory(
-            @Parameter(description = "Category name") @PathVariable String categoryName) {
+            @Parameter(description = "Category name") @PathVariable String categoryName, WebRequest webRequest) {
+        if (notModified(webRequest)) {
+            return null;
+        }
         List<ProductResponse> products = productService.getProductsByCategory(categoryName);
         return ResponseEntity.ok(products);
     }
@@ -61,7 +170,10 @@ public class ProductController {
     @GetMapping("/brand/{brand}")
     @Operation(summary = "Get products by brand", description = "Retrieve products by brand name")
     public ResponseEntity<List<ProductResponse>> getProductsByBrand(
-            @Parameter(description = "Brand name") @PathVariable String brand) {
+            @Parameter(description = "Brand name") @PathVariable String brand, WebRequest webRequest) {
+        if (notModified(webRequest)) {
+            return null;
+        }
         List<ProductResponse> products = productService.getProductsByBrand(brand);
         return ResponseEntity.ok(products);
     }
@@ -89,6 +201,16 @@ public class ProductController {
         return ResponseEntity.status(HttpStatus.CREATED).body(product);
     }
 
+    @PostMapping(value = "/import", consumes = {"text/csv", "application/x-ndjson"})
+    @PreAuthorize("hasRole('ADMIN')")
+    @Operation(summary = "Bulk import products", description = "Import products from a CSV (with header row) or NDJSON request body; " +
+            "rows carry name, brand, price, category (name) and description. Invalid rows are reported, not fatal (Admin only)")
+    public ResponseEntity<ProductImportResult> importProducts(HttpServletRequest request) throws IOException {
+        ProductImportService.ImportFormat format = ProductImportService.formatOf(request.getContentType());
+        ProductImportResult result = productImportService.importProducts(request.getInputStream(), format);
+        return ResponseEntity.ok(result);
+    }
+
     @PutMapping("/{id}")
     @PreAuthorize("hasRole('ADMIN')")
     @Operation(summary = "Update product", description = "Update an existing product (Admin only)")
@@ -121,4 +243,9 @@ public class ProductController {
         productService.deleteProduct(id);
         return ResponseEntity.noContent().build();
     }
-} 
\ No newline at end of file
+
+    // List responses share one validator that changes whenever any product or category does
+    private boolean notModified(WebRequest webRequest) {
+        return webRequest.checkNotModified(catalogVersion.getETag(), catalogVersion.getLastModified());
+    }
+}
@@ -0,0 +1,81 @@
+package com.shopserve.controller;
+
+import com.shopserve.dto.ProductResponse;
+import com.shopserve.service.ProductStreamService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
+import org.springframework.http.codec.ServerSentEvent;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+@RestController
+@RequestMapping(value = "/api/products/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+@Tag(name = "Product Stream Controller", description = "Server-Sent Event streams of product listings, delivered as fast as the client reads them")
+public class ProductStreamController {
+
+    private static final String LAST_EVENT_ID = "Last-Event-ID";
+
+    @Autowired
+    private ProductStreamService productStreamService;
+
+    @GetMapping
+    @Operation(summary = "Stream all products", description = "Stream every product in id order; each event id is the product id")
+    public Flux<ServerSentEvent<?>> streamAllProducts(
+            @Parameter(description = "Resume after this product id") @RequestParam(required = false) Long afterId,
+            @RequestHeader(value = LAST_EVENT_ID, required = false) Long lastEventId) {
+        return toEvents(productStreamService.streamProducts(null, null, null, null, resumeFrom(afterId, lastEventId)));
+    }
+
+    @GetMapping("/filter")
+    @Operation(summary = "Stream filtered products", description = "Stream products matching category, brand and price range in id order")
+    public Flux<ServerSentEvent<?>> streamFilteredProducts(
+            @Parameter(description = "Category name") @RequestParam(required = false) String category,
+            @Parameter(description = "Brand name") @RequestParam(required = false) String brand,
+            @Parameter(description = "Minimum price") @RequestParam(required = false) Double minPrice,
+            @Parameter(description = "Maximum price") @RequestParam(required = false) Double maxPrice,
+            @Parameter(description = "Resume after this product id") @RequestParam(required = false) Long afterId,
+            @RequestHeader(value = LAST_EVENT_ID, required = false) Long lastEventId) {
+        return toEvents(productStreamService.streamProducts(category, brand, minPrice, maxPrice, resumeFrom(afterId, lastEventId)));
+    }
+
+    @GetMapping("/category/{categoryName}")
+    @Operation(summary = "Stream products by category", description = "Stream the products of a category in id order")
+    public Flux<ServerSentEvent<?>> streamProductsByCategory(
+            @Parameter(description = "Category name") @PathVariable String categoryName,
+            @Parameter(description = "Resume after this product id") @RequestParam(required = false) Long afterId,
+            @RequestHeader(value = LAST_EVENT_ID, required = false) Long lastEventId) {
+        return toEvents(productStreamService.streamProducts(categoryName, null, null, null, resumeFrom(afterId, lastEventId)));
+    }
+
+    @GetMapping("/brand/{brand}")
+    @Operation(summary = "Stream products by brand", description = "Stream the products of a brand in id order")
+    public Flux<ServerSentEvent<?>> streamProductsByBrand(
+            @Parameter(description = "Brand name") @PathVariable String brand,
+            @Parameter(description = "Resume after this product id") @RequestParam(required = false) Long afterId,
+            @RequestHeader(value = LAST_EVENT_ID, required = false) Long lastEventId) {
+        return toEvents(productStreamService.streamProducts(null, brand, null, null, resumeFrom(afterId, lastEventId)));
+    }
+
+    // An EventSource that reconnects sends the id of the last event it received
+    private static Long resumeFrom(Long afterId, Long lastEventId) {
+        return lastEventId != null ? lastEventId : afterId;
+    }
+
+    // The closing "end" event tells EventSource clients not to reconnect once the listing is complete
+    private static Flux<ServerSentEvent<?>> toEvents(Flux<ProductResponse> products) {
+        return products.<ServerSentEvent<?>>map(product -> ServerSentEvent.builder(product)
+                        .id(String.valueOf(product.getId()))
+                        .event("product")
+                        .build())
+                .concatWith(Mono.just(ServerSentEvent.builder("complete").event("end").build()));
+    }
+}
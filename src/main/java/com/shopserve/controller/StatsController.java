@@ -0,0 +1,51 @@
+package com.shopserve.controller;
+
+import com.shopserve.cache.CacheStats;
+import com.shopserve.cache.LruCache;
+import com.shopserve.dto.CategoryResponse;
+import com.shopserve.dto.ImageIngestionStats;
+import com.shopserve.dto.ProductResponse;
+import com.shopserve.service.ImageIngestionService;
+import com.shopserve.service.ProductQuery;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/stats")
+@Tag(name = "Stats Controller", description = "Runtime statistics for sizing caches and pipelines")
+public class StatsController {
+
+    @Autowired
+    private LruCache<Long, ProductResponse> productCache;
+
+    @Autowired
+    private LruCache<Long, CategoryResponse> categoryCache;
+
+    @Autowired
+    private LruCache<ProductQuery, List<Long>> productQueryCache;
+
+    @Autowired
+    private ImageIngestionService imageIngestionService;
+
+    @GetMapping("/caches")
+    @PreAuthorize("hasRole('ADMIN')")
+    @Operation(summary = "Cache statistics", description = "Hit, miss and eviction counters of the catalog caches (Admin only)")
+    public ResponseEntity<List<CacheStats>> getCacheStats() {
+        return ResponseEntity.ok(List.of(productCache.stats(), categoryCache.stats(), productQueryCache.stats()));
+    }
+
+    @GetMapping("/images")
+    @PreAuthorize("hasRole('ADMIN')")
+    @Operation(summary = "Image pipeline statistics", description = "Queue depth, throughput and latency of background image ingestion (Admin only)")
+    public ResponseEntity<ImageIngestionStats> getImageStats() {
+        return ResponseEntity.ok(imageIngestionService.stats());
+    }
+}
@@ -0,0 +1,32 @@
+package com.shopserve.dto;
+
+public class BulkUpdateResult {
+
+    private String operation;
+    private long affectedProducts;
+
+    // Constructors
+    public BulkUpdateResult() {}
+
+    public BulkUpdateResult(String operation, long affectedProducts) {
+        this.operation = operation;
+        this.affectedProducts = affectedProducts;
+    }
+
+    // Getters and Setters
+    public String getOperation() {
+        return operation;
+    }
+
+    public void setOperation(String operation) {
+        this.operation = operation;
+    }
+
+    public long getAffectedProducts() {
+        return affectedProducts;
+    }
+
+    public void setAffectedProducts(long affectedProducts) {
+        this.affectedProducts = affectedProducts;
+    }
+}
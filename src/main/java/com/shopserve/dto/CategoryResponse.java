@@ -1,5 +1,6 @@
 package com.shopserve.dto;
 
+import java.time.LocalDateTime;
 import java.util.List;
 
 public class CategoryResponse {
@@ -8,6 +9,8 @@ public class CategoryResponse {
     private String name;
     private String description;
     private List<ProductResponse> products;
+    private Long version;
+    private LocalDateTime updatedAt;
 
     // Constructors
     public CategoryResponse() {}
@@ -18,6 +21,12 @@ public class CategoryResponse {
         this.description = description;
     }
 
+    public CategoryResponse(Long id, String name, String description, Long version, LocalDateTime updatedAt) {
+        this(id, name, description);
+        this.version = version;
+        this.updatedAt = updatedAt;
+    }
+
     public CategoryResponse(Long id, String name, String description, List<ProductResponse> products) {
         this.id = id;
         this.name = name;
@@ -57,4 +66,20 @@ public class CategoryResponse {
     public void setProducts(List<ProductResponse> products) {
         this.products = products;
     }
+
+    public Long getVersion() {
+        return version;
+    }
+
+    public void setVersion(Long version) {
+        this.version = version;
+    }
+
+    public LocalDateTime getUpdatedAt() {
+        return updatedAt;
+    }
+
+    public void setUpdatedAt(LocalDateTime updatedAt) {
+        this.updatedAt = updatedAt;
+    }
 } 
\ No newline at end of file
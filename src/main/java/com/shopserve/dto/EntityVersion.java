@@ -0,0 +1,44 @@
+package com.shopserve.dto;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+
+// Version and modification time of a row, enough to answer a conditional GET without loading it
+public class EntityVersion {
+
+    private final Long version;
+    private final String tag;
+    private final LocalDateTime updatedAt;
+
+    public EntityVersion(Long version, LocalDateTime updatedAt) {
+        this.version = version;
+        this.tag = String.valueOf(version);
+        this.updatedAt = updatedAt;
+    }
+
+    // For rows whose representation embeds fields of a parent row, such as a product's category name
+    public EntityVersion(Long version, LocalDateTime updatedAt, Long parentVersion, LocalDateTime parentUpdatedAt) {
+        this.version = version;
+        this.tag = version + "." + parentVersion;
+        this.updatedAt = parentUpdatedAt != null && (updatedAt == null || parentUpdatedAt.isAfter(updatedAt))
+                ? parentUpdatedAt
+                : updatedAt;
+    }
+
+    // Getters
+    public Long getVersion() {
+        return version;
+    }
+
+    public String getTag() {
+        return tag;
+    }
+
+    public LocalDateTime getUpdatedAt() {
+        return updatedAt;
+    }
+
+    public long getLastModifiedMillis() {
+        return updatedAt == null ? -1 : updatedAt.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+    }
+}
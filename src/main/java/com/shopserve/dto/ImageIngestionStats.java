@@ -0,0 +1,58 @@
+package com.shopserve.dto;
+
+public class ImageIngestionStats {
+
+    private final int queueDepth;
+    private final int queueCapacity;
+    private final int activeWorkers;
+    private final long submitted;
+    private final long completed;
+    private final long failed;
+    private final double averageLatencyMillis;
+    private final long maxLatencyMillis;
+
+    public ImageIngestionStats(int queueDepth, int queueCapacity, int activeWorkers, long submitted, long completed,
+                               long failed, double averageLatencyMillis, long maxLatencyMillis) {
+        this.queueDepth = queueDepth;
+        this.queueCapacity = queueCapacity;
+        this.activeWorkers = activeWorkers;
+        this.submitted = submitted;
+        this.completed = completed;
+        this.failed = failed;
+        this.averageLatencyMillis = averageLatencyMillis;
+        this.maxLatencyMillis = maxLatencyMillis;
+    }
+
+    // Getters
+    public int getQueueDepth() {
+        return queueDepth;
+    }
+
+    public int getQueueCapacity() {
+        return queueCapacity;
+    }
+
+    public int getActiveWorkers() {
+        return activeWorkers;
+    }
+
+    public long getSubmitted() {
+        return submitted;
+    }
+
+    public long getCompleted() {
+        return completed;
+    }
+
+    public long getFailed() {
+        return failed;
+    }
+
+    public double getAverageLatencyMillis() {
+        return averageLatencyMillis;
+    }
+
+    public long getMaxLatencyMillis() {
+        return maxLatencyMillis;
+    }
+}
@@ -0,0 +1,57 @@
+package com.shopserve.dto;
+
+import jakarta.validation.constraints.DecimalMax;
+import jakarta.validation.constraints.DecimalMin;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+
+public class PercentPriceChangeRequest {
+
+    @NotNull(message = "Percent is required")
+    @DecimalMin(value = "-99.99", message = "Percent must be greater than -100")
+    @DecimalMax(value = "1000", message = "Percent cannot exceed 1000")
+    private Double percent;
+
+    // Optional filters; products must match all that are given
+    private String category;
+    private String brand;
+
+    @Size(max = 500, message = "Description cannot exceed 500 characters")
+    private String description;
+
+    // Constructors
+    public PercentPriceChangeRequest() {}
+
+    // Getters and Setters
+    public Double getPercent() {
+        return percent;
+    }
+
+    public void setPercent(Double percent) {
+        this.percent = percent;
+    }
+
+    public String getCategory() {
+        return category;
+    }
+
+    public void setCategory(String category) {
+        this.category = category;
+    }
+
+    public String getBrand() {
+        return brand;
+    }
+
+    public void setBrand(String brand) {
+        this.brand = brand;
+    }
+
+    public String getDescription() {
+        return description;
+    }
+
+    public void setDescription(String description) {
+        this.description = description;
+    }
+}
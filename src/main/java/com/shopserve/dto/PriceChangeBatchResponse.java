@@ -0,0 +1,85 @@
+package com.shopserve.dto;
+
+import java.time.LocalDateTime;
+
+public class PriceChangeBatchResponse {
+
+    private Long id;
+    private String ruleType;
+    private String description;
+    private String status;
+    private long affectedProducts;
+    private LocalDateTime createdAt;
+    private LocalDateTime completedAt;
+
+    // Constructors
+    public PriceChangeBatchResponse() {}
+
+    public PriceChangeBatchResponse(Long id, String ruleType, String description, String status, long affectedProducts,
+                                    LocalDateTime createdAt, LocalDateTime completedAt) {
+        this.id = id;
+        this.ruleType = ruleType;
+        this.description = description;
+        this.status = status;
+        this.affectedProducts = affectedProducts;
+        this.createdAt = createdAt;
+        this.completedAt = completedAt;
+    }
+
+    // Getters and Setters
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public String getRuleType() {
+        return ruleType;
+    }
+
+    public void setRuleType(String ruleType) {
+        this.ruleType = ruleType;
+    }
+
+    public String getDescription() {
+        return description;
+    }
+
+    public void setDescription(String description) {
+        this.description = description;
+    }
+
+    public String getStatus() {
+        return status;
+    }
+
+    public void setStatus(String status) {
+        this.status = status;
+    }
+
+    public long getAffectedProducts() {
+        return affectedProducts;
+    }
+
+    public void setAffectedProducts(long affectedProducts) {
+        this.affectedProducts = affectedProducts;
+    }
+
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+
+    public void setCreatedAt(LocalDateTime createdAt) {
+        this.createdAt = createdAt;
+    }
+
+    public LocalDateTime getCompletedAt() {
+        return completedAt;
+    }
+
+    public void setCompletedAt(LocalDateTime completedAt) {
+        this.completedAt = completedAt;
+    }
+}
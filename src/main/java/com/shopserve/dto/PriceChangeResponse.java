@@ -0,0 +1,42 @@
+package com.shopserve.dto;
+
+public class PriceChangeResponse {
+
+    private Long productId;
+    private Double oldPrice;
+    private Double newPrice;
+
+    // Constructors
+    public PriceChangeResponse() {}
+
+    public PriceChangeResponse(Long productId, Double oldPrice, Double newPrice) {
+        this.productId = productId;
+        this.oldPrice = oldPrice;
+        this.newPrice = newPrice;
+    }
+
+    // Getters and Setters
+    public Long getProductId() {
+        return productId;
+    }
+
+    public void setProductId(Long productId) {
+        this.productId = productId;
+    }
+
+    public Double getOldPrice() {
+        return oldPrice;
+    }
+
+    public void setOldPrice(Double oldPrice) {
+        this.oldPrice = oldPrice;
+    }
+
+    public Double getNewPrice() {
+        return newPrice;
+    }
+
+    public void setNewPrice(Double newPrice) {
+        this.newPrice = newPrice;
+    }
+}
@@ -0,0 +1,82 @@
+package com.shopserve.dto;
+
+import java.util.List;
+
+public class ProductBatchResponse {
+
+    private int found;
+    private int notFound;
+    private List<Item> items;
+
+    // Constructors
+    public ProductBatchResponse() {}
+
+    public ProductBatchResponse(List<Item> items) {
+        this.items = items;
+        this.found = (int) items.stream().filter(Item::isFound).count();
+        this.notFound = items.size() - found;
+    }
+
+    // Getters and Setters
+    public int getFound() {
+        return found;
+    }
+
+    public void setFound(int found) {
+        this.found = found;
+    }
+
+    public int getNotFound() {
+        return notFound;
+    }
+
+    public void setNotFound(int notFound) {
+        this.notFound = notFound;
+    }
+
+    public List<Item> getItems() {
+        return items;
+    }
+
+    public void setItems(List<Item> items) {
+        this.items = items;
+    }
+
+    // One entry per requested id, in request order; product is null when found is false
+    public static class Item {
+
+        private Long id;
+        private boolean found;
+        private ProductResponse product;
+
+        public Item(Long id, ProductResponse product) {
+            this.id = id;
+            this.found = product != null;
+            this.product = product;
+        }
+
+        public Long getId() {
+            return id;
+        }
+
+        public void setId(Long id) {
+            this.id = id;
+        }
+
+        public boolean isFound() {
+            return found;
+        }
+
+        public void setFound(boolean found) {
+            this.found = found;
+        }
+
+        public ProductResponse getProduct() {
+            return product;
+        }
+
+        public void setProduct(ProductResponse product) {
+            this.product = product;
+        }
+    }
+}
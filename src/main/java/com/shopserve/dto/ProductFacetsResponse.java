@@ -0,0 +1,119 @@
+package com.shopserve.dto;
+
+import java.util.List;
+
+public class ProductFacetsResponse {
+
+    private long total;
+    private List<FacetValue> categories;
+    private List<FacetValue> brands;
+    private List<PriceBucket> priceBuckets;
+
+    // Constructors
+    public ProductFacetsResponse() {}
+
+    public ProductFacetsResponse(long total, List<FacetValue> categories, List<FacetValue> brands, List<PriceBucket> priceBuckets) {
+        this.total = total;
+        this.categories = categories;
+        this.brands = brands;
+        this.priceBuckets = priceBuckets;
+    }
+
+    // Getters and Setters
+    public long getTotal() {
+        return total;
+    }
+
+    public void setTotal(long total) {
+        this.total = total;
+    }
+
+    public List<FacetValue> getCategories() {
+        return categories;
+    }
+
+    public void setCategories(List<FacetValue> categories) {
+        this.categories = categories;
+    }
+
+    public List<FacetValue> getBrands() {
+        return brands;
+    }
+
+    public void setBrands(List<FacetValue> brands) {
+        this.brands = brands;
+    }
+
+    public List<PriceBucket> getPriceBuckets() {
+        return priceBuckets;
+    }
+
+    public void setPriceBuckets(List<PriceBucket> priceBuckets) {
+        this.priceBuckets = priceBuckets;
+    }
+
+    public static class FacetValue {
+
+        private String value;
+        private long count;
+
+        public FacetValue(String value, long count) {
+            this.value = value;
+            this.count = count;
+        }
+
+        public String getValue() {
+            return value;
+        }
+
+        public void setValue(String value) {
+            this.value = value;
+        }
+
+        public long getCount() {
+            return count;
+        }
+
+        public void setCount(long count) {
+            this.count = count;
+        }
+    }
+
+    // Products priced from min (inclusive) up to max (exclusive)
+    public static class PriceBucket {
+
+        private double min;
+        private double max;
+        private long count;
+
+        public PriceBucket(double min, double max, long count) {
+            this.min = min;
+            this.max = max;
+            this.count = count;
+        }
+
+        public double getMin() {
+            return min;
+        }
+
+        public void setMin(double min) {
+            this.min = min;
+        }
+
+        public double getMax() {
+            return max;
+        }
+
+        public void setMax(double max) {
+            this.max = max;
+        }
+
+        public long getCount() {
+            return count;
+        }
+
+        public void setCount(long count) {
+            this.count = count;
+        }
+    }
+}
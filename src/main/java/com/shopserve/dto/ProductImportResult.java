@@ -0,0 +1,92 @@
+package com.shopserve.dto;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public class ProductImportResult {
+
+    // Keeps the report bounded when a feed is broken on every line
+    private static final int MAX_REPORTED_ERRORS = 1000;
+
+    private long totalRows;
+    private long imported;
+    private long failed;
+    private List<RowError> errors = new ArrayList<>();
+
+    // Constructors
+    public ProductImportResult() {}
+
+    public void addImported(long count) {
+        imported += count;
+    }
+
+    public void addError(long line, String message) {
+        failed++;
+        if (errors.size() < MAX_REPORTED_ERRORS) {
+            errors.add(new RowError(line, message));
+        }
+    }
+
+    public void incrementTotalRows() {
+        totalRows++;
+    }
+
+    // Getters and Setters
+    public long getTotalRows() {
+        return totalRows;
+    }
+
+    public void setTotalRows(long totalRows) {
+        this.totalRows = totalRows;
+    }
+
+    public long getImported() {
+        return imported;
+    }
+
+    public void setImported(long imported) {
+        this.imported = imported;
+    }
+
+    public long getFailed() {
+        return failed;
+    }
+
+    public void setFailed(long failed) {
+        this.failed = failed;
+    }
+
+    public List<RowError> getErrors() {
+        return errors;
+    }
+
+    public void setErrors(List<RowError> errors) {
+        this.errors = errors;
+    }
+
+    public static class RowError {
+        private long line;
+        private String message;
+
+        public RowError(long line, String message) {
+            this.line = line;
+            this.message = message;
+        }
+
+        public long getLine() {
+            return line;
+        }
+
+        public void setLine(long line) {
+            this.line = line;
+        }
+
+        public String getMessage() {
+            return message;
+        }
+
+        public void setMessage(String message) {
+            this.message = message;
+        }
+    }
+}
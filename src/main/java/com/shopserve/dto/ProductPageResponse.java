@@ -0,0 +1,54 @@
+package com.shopserve.dto;
+
+import java.util.List;
+
+public class ProductPageResponse {
+
+    private List<ProductResponse> content;
+    private int size;
+    private boolean hasNext;
+    private String nextCursor;
+
+    // Constructors
+    public ProductPageResponse() {}
+
+    public ProductPageResponse(List<ProductResponse> content, boolean hasNext, String nextCursor) {
+        this.content = content;
+        this.size = content.size();
+        this.hasNext = hasNext;
+        this.nextCursor = nextCursor;
+    }
+
+    // Getters and Setters
+    public List<ProductResponse> getContent() {
+        return content;
+    }
+
+    public void setContent(List<ProductResponse> content) {
+        this.content = content;
+    }
+
+    public int getSize() {
+        return size;
+    }
+
+    public void setSize(int size) {
+        this.size = size;
+    }
+
+    public boolean isHasNext() {
+        return hasNext;
+    }
+
+    public void setHasNext(boolean hasNext) {
+        this.hasNext = hasNext;
+    }
+
+    public String getNextCursor() {
+        return nextCursor;
+    }
+
+    public void setNextCursor(String nextCursor) {
+        this.nextCursor = nextCursor;
+    }
+}
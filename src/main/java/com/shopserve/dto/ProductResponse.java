@@ -1,5 +1,9 @@
 package com.shopserve.dto;
 
+import com.shopserve.entity.ImageStatus;
+
+import java.time.LocalDateTime;
+
 public class ProductResponse {
 
     private Long id;
@@ -7,8 +11,11 @@ public class ProductResponse {
     private String brand;
     private Double price;
     private String imageUrl;
+    private ImageStatus imageStatus;
     private String categoryName;
     private String description;
+    private Long version;
+    private LocalDateTime updatedAt;
 
     // Constructors
     public ProductResponse() {}
@@ -23,6 +30,19 @@ public class ProductResponse {
         this.description = description;
     }
 
+    public ProductResponse(Long id, String name, String brand, Double price, String imageUrl, ImageStatus imageStatus,
+                           String categoryName, String description) {
+        this(id, name, brand, price, imageUrl, categoryName, description);
+        this.imageStatus = imageStatus;
+    }
+
+    public ProductResponse(Long id, String name, String brand, Double price, String imageUrl, ImageStatus imageStatus,
+                           String categoryName, String description, Long version, LocalDateTime updatedAt) {
+        this(id, name, brand, price, imageUrl, imageStatus, categoryName, description);
+        this.version = version;
+        this.updatedAt = updatedAt;
+    }
+
     // Getters and Setters
     public Long getId() {
         return id;
@@ -64,6 +84,14 @@ public class ProductResponse {
         this.imageUrl = imageUrl;
     }
 
+    public ImageStatus getImageStatus() {
+        return imageStatus;
+    }
+
+    public void setImageStatus(ImageStatus imageStatus) {
+        this.imageStatus = imageStatus;
+    }
+
     public String getCategoryName() {
         return categoryName;
     }
@@ -79,4 +107,20 @@ public class ProductResponse {
     public void setDescription(String description) {
         this.description = description;
     }
+
+    public Long getVersion() {
+        return version;
+    }
+
+    public void setVersion(Long version) {
+        this.version = version;
+    }
+
+    public LocalDateTime getUpdatedAt() {
+        return updatedAt;
+    }
+
+    public void setUpdatedAt(LocalDateTime updatedAt) {
+        this.updatedAt = updatedAt;
+    }
 } 
\ No newline at end of file
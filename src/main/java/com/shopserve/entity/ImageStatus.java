@@ -0,0 +1,8 @@
+package com.shopserve.entity;
+
+public enum ImageStatus {
+    NONE,
+    PENDING,
+    READY,
+    FAILED
+}
@@ -0,0 +1,92 @@
+package com.shopserve.entity;
+
+import jakarta.persistence.*;
+
+import java.io.Serializable;
+import java.util.Objects;
+
+// Change log row: a product's price before and after one batch. Written with set-based SQL, read through JPA
+@Entity
+@Table(name = "price_changes")
+@IdClass(PriceChange.Key.class)
+public class PriceChange {
+
+    @Id
+    @Column(name = "batch_id")
+    private Long batchId;
+
+    @Id
+    @Column(name = "product_id")
+    private Long productId;
+
+    @Column(nullable = false)
+    private Double oldPrice;
+
+    @Column(nullable = false)
+    private Double newPrice;
+
+    // Constructors
+    public PriceChange() {}
+
+    // Getters and Setters
+    public Long getBatchId() {
+        return batchId;
+    }
+
+    public void setBatchId(Long batchId) {
+        this.batchId = batchId;
+    }
+
+    public Long getProductId() {
+        return productId;
+    }
+
+    public void setProductId(Long productId) {
+        this.productId = productId;
+    }
+
+    public Double getOldPrice() {
+        return oldPrice;
+    }
+
+    public void setOldPrice(Double oldPrice) {
+        this.oldPrice = oldPrice;
+    }
+
+    public Double getNewPrice() {
+        return newPrice;
+    }
+
+    public void setNewPrice(Double newPrice) {
+        this.newPrice = newPrice;
+    }
+
+    public static class Key implements Serializable {
+
+        private Long batchId;
+        private Long productId;
+
+        public Key() {}
+
+        public Key(Long batchId, Long productId) {
+            this.batchId = batchId;
+            this.productId = productId;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof Key key)) {
+                return false;
+            }
+            return Objects.equals(batchId, key.batchId) && Objects.equals(productId, key.productId);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(batchId, productId);
+        }
+    }
+}
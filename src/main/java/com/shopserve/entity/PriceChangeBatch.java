@@ -0,0 +1,112 @@
+package com.shopserve.entity;
+
+import jakarta.persistence.*;
+
+import java.time.LocalDateTime;
+
+// One bulk repricing run; the individual price changes it made are logged as PriceChange rows
+@Entity
+@Table(name = "price_change_batches")
+public class PriceChangeBatch {
+
+    public enum RuleType {
+        PERCENT,
+        PRICE_LIST
+    }
+
+    public enum Status {
+        RUNNING,
+        COMPLETED,
+        FAILED
+    }
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 16)
+    private RuleType ruleType;
+
+    @Column(length = 500)
+    private String description;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 16)
+    private Status status;
+
+    @Column(nullable = false)
+    private long affectedProducts;
+
+    @Column(nullable = false)
+    private LocalDateTime createdAt;
+
+    private LocalDateTime completedAt;
+
+    // Constructors
+    public PriceChangeBatch() {}
+
+    public PriceChangeBatch(RuleType ruleType, String description) {
+        this.ruleType = ruleType;
+        this.description = description;
+        this.status = Status.RUNNING;
+        this.createdAt = LocalDateTime.now();
+    }
+
+    // Getters and Setters
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public RuleType getRuleType() {
+        return ruleType;
+    }
+
+    public void setRuleType(RuleType ruleType) {
+        this.ruleType = ruleType;
+    }
+
+    public String getDescription() {
+        return description;
+    }
+
+    public void setDescription(String description) {
+        this.description = description;
+    }
+
+    public Status getStatus() {
+        return status;
+    }
+
+    public void setStatus(Status status) {
+        this.status = status;
+    }
+
+    public long getAffectedProducts() {
+        return affectedProducts;
+    }
+
+    public void setAffectedProducts(long affectedProducts) {
+        this.affectedProducts = affectedProducts;
+    }
+
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+
+    public void setCreatedAt(LocalDateTime createdAt) {
+        this.createdAt = createdAt;
+    }
+
+    public LocalDateTime getCompletedAt() {
+        return completedAt;
+    }
+
+    public void setCompletedAt(LocalDateTime completedAt) {
+        this.completedAt = completedAt;
+    }
+}
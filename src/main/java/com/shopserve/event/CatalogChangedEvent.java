@@ -0,0 +1,21 @@
+package com.shopserve.event;
+
+// Published after a set-based update changed many products at once; listeners must reload rather than patch
+public class CatalogChangedEvent {
+
+    private final String reason;
+    private final long affectedProducts;
+
+    public CatalogChangedEvent(String reason, long affectedProducts) {
+        this.reason = reason;
+        this.affectedProducts = affectedProducts;
+    }
+
+    public String getReason() {
+        return reason;
+    }
+
+    public long getAffectedProducts() {
+        return affectedProducts;
+    }
+}
@@ -0,0 +1,31 @@
+package com.shopserve.event;
+
+import com.shopserve.dto.CategoryResponse;
+
+// Published after a category is created (previous == null), updated, or deleted (current == null)
+public class CategoryChangedEvent {
+
+    private final CategoryResponse previous;
+    private final CategoryResponse current;
+
+    public CategoryChangedEvent(CategoryResponse previous, CategoryResponse current) {
+        this.previous = previous;
+        this.current = current;
+    }
+
+    public Long getCategoryId() {
+        return current != null ? current.getId() : previous.getId();
+    }
+
+    public CategoryResponse getPrevious() {
+        return previous;
+    }
+
+    public CategoryResponse getCurrent() {
+        return current;
+    }
+
+    public boolean isRenamed() {
+        return previous != null && current != null && !previous.getName().equals(current.getName());
+    }
+}
@@ -0,0 +1,39 @@
+package com.shopserve.event;
+
+import com.shopserve.dto.ProductResponse;
+
+// Published after a product is created (previous == null), updated, or deleted (current == null)
+public class ProductChangedEvent {
+
+    private final ProductResponse previous;
+    private final ProductResponse current;
+
+    public ProductChangedEvent(ProductResponse previous, ProductResponse current) {
+        this.previous = previous;
+        this.current = current;
+    }
+
+    public static ProductChangedEvent created(ProductResponse product) {
+        return new ProductChangedEvent(null, product);
+    }
+
+    public static ProductChangedEvent updated(ProductResponse previous, ProductResponse current) {
+        return new ProductChangedEvent(previous, current);
+    }
+
+    public static ProductChangedEvent deleted(ProductResponse product) {
+        return new ProductChangedEvent(product, null);
+    }
+
+    public Long getProductId() {
+        return current != null ? current.getId() : previous.getId();
+    }
+
+    public ProductResponse getPrevious() {
+        return previous;
+    }
+
+    public ProductResponse getCurrent() {
+        return current;
+    }
+}
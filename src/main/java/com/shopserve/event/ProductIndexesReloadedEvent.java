@@ -0,0 +1,21 @@
+package com.shopserve.event;
+
+// Published after rebuilt product indexes were swapped in; results derived from the old indexes are stale
+public class ProductIndexesReloadedEvent {
+
+    private final int filterIndexSize;
+    private final int searchIndexSize;
+
+    public ProductIndexesReloadedEvent(int filterIndexSize, int searchIndexSize) {
+        this.filterIndexSize = filterIndexSize;
+        this.searchIndexSize = searchIndexSize;
+    }
+
+    public int getFilterIndexSize() {
+        return filterIndexSize;
+    }
+
+    public int getSearchIndexSize() {
+        return searchIndexSize;
+    }
+}
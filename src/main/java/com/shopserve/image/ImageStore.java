@@ -0,0 +1,242 @@
+package com.shopserve.image;
+
+import com.shopserve.event.CatalogChangedEvent;
+import com.shopserve.event.ProductChangedEvent;
+import com.shopserve.repository.ProductRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.FileTime;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Content-addressed storage for product images. Blobs are named by the SHA-256 of their bytes, so
+ * identical uploads share one file, and reference counts track how many products point at each blob.
+ * A background sweeper removes blobs no product references once they are older than a grace period.
+ */
+@Component
+public class ImageStore {
+
+    private static final Logger logger = LoggerFactory.getLogger(ImageStore.class);
+
+    public static final String URL_PREFIX = "/uploads/";
+
+    private static final String UPLOAD_DIR = "uploads/";
+    private static final String STAGING_DIR = "uploads/staging/";
+
+    private static final int LOCK_STRIPES = 64;
+
+    // Staged uploads are renamed with this prefix and the product id once the product has been saved
+    private static final String CLAIMED_PREFIX = "p";
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Value("${shopserve.images.sweeper.grace-period-minutes:60}")
+    private long gracePeriodMinutes;
+
+    private final Map<String, Integer> referenceCounts = new ConcurrentHashMap<>();
+
+    // Striped by blob name; put and the sweeper's delete of the same blob never interleave
+    private final ReentrantLock[] blobLocks = new ReentrantLock[LOCK_STRIPES];
+
+    public ImageStore() {
+        for (int i = 0; i < LOCK_STRIPES; i++) {
+            blobLocks[i] = new ReentrantLock();
+        }
+    }
+
+    // Writes the multipart upload to a staging file; a disk-backed upload is copied channel to channel without a user-space buffer
+    public Path stage(MultipartFile file) throws IOException {
+        Path stagingPath = Paths.get(STAGING_DIR).toAbsolutePath();
+        Files.createDirectories(stagingPath);
+
+        Path stagedFile = stagingPath.resolve(UUID.randomUUID() + ".upload");
+        try (InputStream input = file.getInputStream();
+             ReadableByteChannel source = input instanceof FileInputStream fileInput
+                     ? fileInput.getChannel()
+                     : Channels.newChannel(input);
+             FileChannel target = FileChannel.open(stagedFile, StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE)) {
+            long position = 0;
+            long transferred;
+            while ((transferred = target.transferFrom(source, position, Long.MAX_VALUE)) > 0) {
+                position += transferred;
+            }
+        } catch (IOException e) {
+            Files.deleteIfExists(stagedFile);
+            throw e;
+        }
+        return stagedFile;
+    }
+
+    // Ties a staged upload to its saved product, so the upload can be resumed after a restart
+    public Path claimStaged(Path stagedFile, Long productId) throws IOException {
+        Path claimed = stagedFile.resolveSibling(CLAIMED_PREFIX + productId + "_" + stagedFile.getFileName());
+        return Files.move(stagedFile, claimed, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    // Returns the product a staged upload was claimed for, or null if its request never saved a product
+    public static Long claimedProductId(Path stagedFile) {
+        String name = stagedFile.getFileName().toString();
+        int separator = name.indexOf('_');
+        if (!name.startsWith(CLAIMED_PREFIX) || separator <= CLAIMED_PREFIX.length()) {
+            return null;
+        }
+        try {
+            return Long.valueOf(name.substring(CLAIMED_PREFIX.length(), separator));
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    public List<Path> listStaged() throws IOException {
+        Path stagingPath = Paths.get(STAGING_DIR).toAbsolutePath();
+        if (!Files.isDirectory(stagingPath)) {
+            return List.of();
+        }
+        List<Path> stagedFiles = new ArrayList<>();
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(stagingPath, "*.upload")) {
+            files.forEach(stagedFiles::add);
+        }
+        return stagedFiles;
+    }
+
+    // Moves a staged file into the store under its content hash and returns its public URL
+    public String put(Path stagedFile, String extension) throws IOException {
+        String filename = sha256(stagedFile) + extension;
+        Path target = Paths.get(UPLOAD_DIR).toAbsolutePath().resolve(filename);
+
+        ReentrantLock lock = lockFor(filename);
+        lock.lock();
+        try {
+            if (Files.exists(target)) {
+                // Already stored: restart the grace period so the sweeper keeps the blob, then drop the duplicate
+                Files.setLastModifiedTime(target, FileTime.fromMillis(System.currentTimeMillis()));
+                Files.deleteIfExists(stagedFile);
+            } else {
+                Files.move(stagedFile, target, StandardCopyOption.ATOMIC_MOVE);
+            }
+        } finally {
+            lock.unlock();
+        }
+        return URL_PREFIX + filename;
+    }
+
+    public int referenceCount(String imageUrl) {
+        return referenceCounts.getOrDefault(imageUrl, 0);
+    }
+
+    @EventListener({ApplicationReadyEvent.class, CatalogChangedEvent.class})
+    public void loadReferenceCounts() {
+        Map<String, Integer> counts = new ConcurrentHashMap<>();
+        for (Object[] row : productRepository.countByImageUrl()) {
+            counts.put((String) row[0], ((Number) row[1]).intValue());
+        }
+        referenceCounts.clear();
+        referenceCounts.putAll(counts);
+    }
+
+    @EventListener
+    public void onProductChanged(ProductChangedEvent event) {
+        String previousUrl = event.getPrevious() != null ? event.getPrevious().getImageUrl() : null;
+        String currentUrl = event.getCurrent() != null ? event.getCurrent().getImageUrl() : null;
+        if (Objects.equals(previousUrl, currentUrl)) {
+            return;
+        }
+        if (previousUrl != null) {
+            referenceCounts.computeIfPresent(previousUrl, (url, count) -> count > 1 ? count - 1 : null);
+        }
+        if (currentUrl != null) {
+            referenceCounts.merge(currentUrl, 1, Integer::sum);
+        }
+    }
+
+    // Counts are only a fast filter; a blob is deleted after the database confirms nothing references it
+    @Scheduled(fixedDelayString = "${shopserve.images.sweeper.interval-ms:600000}",
+            initialDelayString = "${shopserve.images.sweeper.interval-ms:600000}")
+    public void sweepUnreferencedBlobs() {
+        Path uploadPath = Paths.get(UPLOAD_DIR).toAbsolutePath();
+        if (!Files.isDirectory(uploadPath)) {
+            return;
+        }
+
+        long cutoff = System.currentTimeMillis() - Duration.ofMinutes(gracePeriodMinutes).toMillis();
+        int deleted = 0;
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(uploadPath, Files::isRegularFile)) {
+            for (Path file : files) {
+                String imageUrl = URL_PREFIX + file.getFileName();
+                if (referenceCount(imageUrl) > 0 || Files.getLastModifiedTime(file).toMillis() > cutoff) {
+                    continue;
+                }
+                if (productRepository.existsByImageUrl(imageUrl)) {
+                    continue;
+                }
+
+                // A put may have reused the blob since the checks above; it restarts the grace period under the same lock
+                ReentrantLock lock = lockFor(file.getFileName().toString());
+                lock.lock();
+                try {
+                    if (Files.exists(file) && Files.getLastModifiedTime(file).toMillis() <= cutoff
+                            && referenceCount(imageUrl) == 0 && Files.deleteIfExists(file)) {
+                        deleted++;
+                    }
+                } finally {
+                    lock.unlock();
+                }
+            }
+        } catch (IOException e) {
+            logger.warn("Image sweep failed: {}", e.getMessage());
+        }
+        if (deleted > 0) {
+            logger.info("Image sweeper removed {} unreferenced blobs", deleted);
+        }
+    }
+
+    private ReentrantLock lockFor(String filename) {
+        int hash = filename.hashCode();
+        return blobLocks[(hash ^ (hash >>> 16)) & (LOCK_STRIPES - 1)];
+    }
+
+    private static String sha256(Path file) throws IOException {
+        try (InputStream input = Files.newInputStream(file)) {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            byte[] buffer = new byte[64 * 1024];
+            int read;
+            while ((read = input.read(buffer)) != -1) {
+                digest.update(buffer, 0, read);
+            }
+            return HexFormat.of().formatHex(digest.digest());
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
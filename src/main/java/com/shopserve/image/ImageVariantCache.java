@@ -0,0 +1,335 @@
+package com.shopserve.image;
+
+import com.shopserve.exception.ResourceNotFoundException;
+import com.shopserve.exception.ServiceUnavailableException;
+import com.shopserve.exception.ValidationException;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import javax.imageio.IIOImage;
+import javax.imageio.ImageIO;
+import javax.imageio.ImageReader;
+import javax.imageio.ImageWriteParam;
+import javax.imageio.ImageWriter;
+import javax.imageio.stream.ImageInputStream;
+import javax.imageio.stream.ImageOutputStream;
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Semaphore;
+import java.util.regex.Pattern;
+
+/**
+ * Resized renditions of uploaded images, kept in a size-bounded least-recently-used cache on disk.
+ * Concurrent requests for a variant that is not cached yet wait for a single render instead of
+ * each decoding the original. Renders are capped in number and originals are checked against a
+ * pixel limit from their header before being decoded, since variant URLs are public.
+ */
+@Component
+public class ImageVariantCache {
+
+    private static final Logger logger = LoggerFactory.getLogger(ImageVariantCache.class);
+
+    private static final String UPLOAD_DIR = "uploads/";
+    private static final String VARIANT_DIR = "uploads/variants/";
+
+    public static final int MAX_DIMENSION = 2048;
+    private static final float JPEG_QUALITY = 0.85f;
+
+    private static final Pattern SAFE_FILENAME = Pattern.compile("[A-Za-z0-9_-]+\\.[A-Za-z0-9]+");
+
+    @Value("${shopserve.images.variants.max-size-mb:512}")
+    private long maxSizeMb;
+
+    @Value("${shopserve.images.variants.max-source-pixels:25000000}")
+    private long maxSourcePixels;
+
+    @Value("${shopserve.images.variants.max-concurrent-renders:2}")
+    private int maxConcurrentRenders;
+
+    private Path uploadPath;
+    private Path variantPath;
+
+    // Variant file name -> size in bytes, in access order
+    private final LinkedHashMap<String, Long> entries = new LinkedHashMap<>(16, 0.75f, true);
+    private long totalBytes;
+
+    private final ConcurrentHashMap<String, CompletableFuture<Path>> renders = new ConcurrentHashMap<>();
+
+    private Semaphore renderPermits;
+
+    @PostConstruct
+    public void init() throws IOException {
+        uploadPath = Paths.get(UPLOAD_DIR).toAbsolutePath();
+        variantPath = Paths.get(VARIANT_DIR).toAbsolutePath();
+        Files.createDirectories(variantPath);
+        renderPermits = new Semaphore(maxConcurrentRenders);
+
+        // Re-adopt variants from a previous run, oldest first so they are evicted first
+        List<Path> existing = new ArrayList<>();
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(variantPath, Files::isRegularFile)) {
+            files.forEach(existing::add);
+        }
+        existing.sort(Comparator.comparingLong(ImageVariantCache::lastModified));
+        synchronized (this) {
+            for (Path file : existing) {
+                if (file.getFileName().toString().endsWith(".tmp")) {
+                    Files.deleteIfExists(file);
+                } else {
+                    record(file.getFileName().toString(), Files.size(file));
+                }
+            }
+        }
+    }
+
+    public static boolean isFormatSupported(String format) {
+        return ImageIO.getImageWritersByFormatName(format).hasNext();
+    }
+
+    // Returns the cached variant file, rendering it first if needed
+    public Path getVariant(String filename, Integer width, Integer height, String format) {
+        if (filename == null || !SAFE_FILENAME.matcher(filename).matches()) {
+            throw new ValidationException("Invalid image name");
+        }
+        validateDimension("w", width);
+        validateDimension("h", height);
+        Path source = uploadPath.resolve(filename);
+        if (!Files.isRegularFile(source)) {
+            throw new ResourceNotFoundException("Image", "name", filename);
+        }
+
+        String targetFormat = resolveFormat(filename, format);
+        String base = filename.substring(0, filename.lastIndexOf('.'));
+        String key = base + "_w" + (width == null ? "" : width) + "_h" + (height == null ? "" : height)
+                + "." + extensionOf(targetFormat);
+
+        Path cached = lookup(key);
+        if (cached != null) {
+            return cached;
+        }
+
+        CompletableFuture<Path> render = new CompletableFuture<>();
+        CompletableFuture<Path> existing = renders.putIfAbsent(key, render);
+        if (existing != null) {
+            try {
+                return existing.join();
+            } catch (CompletionException e) {
+                throw e.getCause() instanceof RuntimeException cause ? cause : e;
+            }
+        }
+
+        boolean permitted = false;
+        try {
+            // Another caller may have finished the render between the lookup and claiming it
+            Path variant = lookup(key);
+            if (variant == null) {
+                // Shed load rather than queue decodes; callers waiting on this render get the same 503
+                permitted = renderPermits.tryAcquire();
+                if (!permitted) {
+                    throw new ServiceUnavailableException("Too many image variants are being rendered, please retry");
+                }
+                variant = render(source, key, width, height, targetFormat);
+            }
+            render.complete(variant);
+            return variant;
+        } catch (RuntimeException e) {
+            render.completeExceptionally(e);
+            throw e;
+        } finally {
+            if (permitted) {
+                renderPermits.release();
+            }
+            renders.remove(key, render);
+        }
+    }
+
+    public static String contentTypeOf(Path variant) {
+        String name = variant.getFileName().toString();
+        String extension = name.substring(name.lastIndexOf('.') + 1);
+        return switch (extension) {
+            case "png" -> "image/png";
+            case "webp" -> "image/webp";
+            default -> "image/jpeg";
+        };
+    }
+
+    private Path render(Path source, String key, Integer width, Integer height, String format) {
+        try {
+            BufferedImage original = readOriginal(source);
+
+            // Fit inside the requested box, keeping the aspect ratio and never upscaling
+            double scale = 1.0;
+            if (width != null) {
+                scale = Math.min(scale, (double) width / original.getWidth());
+            }
+            if (height != null) {
+                scale = Math.min(scale, (double) height / original.getHeight());
+            }
+            int targetWidth = Math.max(1, (int) Math.round(original.getWidth() * scale));
+            int targetHeight = Math.max(1, (int) Math.round(original.getHeight() * scale));
+
+            boolean alpha = !"jpeg".equals(format) && original.getColorModel().hasAlpha();
+            BufferedImage resized = new BufferedImage(targetWidth, targetHeight,
+                    alpha ? BufferedImage.TYPE_INT_ARGB : BufferedImage.TYPE_INT_RGB);
+            Graphics2D graphics = resized.createGraphics();
+            try {
+                graphics.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+                graphics.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
+                if (!alpha) {
+                    graphics.setColor(Color.WHITE);
+                    graphics.fillRect(0, 0, targetWidth, targetHeight);
+                }
+                graphics.drawImage(original, 0, 0, targetWidth, targetHeight, null);
+            } finally {
+                graphics.dispose();
+            }
+
+            Path temp = variantPath.resolve(UUID.randomUUID() + ".tmp");
+            try {
+                write(resized, format, temp);
+                Path variant = variantPath.resolve(key);
+                Files.move(temp, variant, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+                synchronized (this) {
+                    record(key, Files.size(variant));
+                }
+                return variant;
+            } finally {
+                Files.deleteIfExists(temp);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to render image variant " + key, e);
+        }
+    }
+
+    // Reads the dimensions from the header first, so an oversized original is rejected before it is decoded
+    private BufferedImage readOriginal(Path source) throws IOException {
+        try (ImageInputStream input = ImageIO.createImageInputStream(source.toFile())) {
+            Iterator<ImageReader> readers = input == null ? null : ImageIO.getImageReaders(input);
+            if (readers == null || !readers.hasNext()) {
+                throw new ValidationException("Image format cannot be resized");
+            }
+            ImageReader reader = readers.next();
+            try {
+                reader.setInput(input, true, true);
+                if ((long) reader.getWidth(0) * reader.getHeight(0) > maxSourcePixels) {
+                    throw new ValidationException("Image is too large to be resized");
+                }
+                return reader.read(0);
+            } finally {
+                reader.dispose();
+            }
+        }
+    }
+
+    private static void write(BufferedImage image, String format, Path target) throws IOException {
+        Iterator<ImageWriter> writers = ImageIO.getImageWritersByFormatName(format);
+        if (!writers.hasNext()) {
+            throw new ValidationException("Image format '" + format + "' is not supported");
+        }
+        ImageWriter writer = writers.next();
+        try (ImageOutputStream output = ImageIO.createImageOutputStream(target.toFile())) {
+            writer.setOutput(output);
+            ImageWriteParam param = writer.getDefaultWriteParam();
+            if ("jpeg".equals(format)) {
+                param.setCompressionMode(ImageWriteParam.MODE_EXPLICIT);
+                param.setCompressionQuality(JPEG_QUALITY);
+            }
+            writer.write(null, new IIOImage(image, null, null), param);
+        } finally {
+            writer.dispose();
+        }
+    }
+
+    private synchronized Path lookup(String key) {
+        if (entries.get(key) == null) {
+            return null;
+        }
+        Path variant = variantPath.resolve(key);
+        if (!Files.isRegularFile(variant)) {
+            totalBytes -= entries.remove(key);
+            return null;
+        }
+        return variant;
+    }
+
+    private void record(String key, long size) {
+        Long previous = entries.put(key, size);
+        totalBytes += size - (previous == null ? 0 : previous);
+
+        long maxBytes = maxSizeMb * 1024 * 1024;
+        Iterator<Map.Entry<String, Long>> eldest = entries.entrySet().iterator();
+        while (totalBytes > maxBytes && eldest.hasNext()) {
+            Map.Entry<String, Long> entry = eldest.next();
+            if (entry.getKey().equals(key)) {
+                continue;
+            }
+            try {
+                Files.deleteIfExists(variantPath.resolve(entry.getKey()));
+            } catch (IOException e) {
+                logger.warn("Could not evict image variant {}", entry.getKey());
+            }
+            totalBytes -= entry.getValue();
+            eldest.remove();
+        }
+    }
+
+    private static void validateDimension(String name, Integer value) {
+        if (value != null && (value < 1 || value > MAX_DIMENSION)) {
+            throw new ValidationException("Parameter '" + name + "' must be between 1 and " + MAX_DIMENSION);
+        }
+    }
+
+    // Defaults to the source format for JPEG and PNG originals, JPEG otherwise
+    private static String resolveFormat(String filename, String format) {
+        String requested = format;
+        if (requested == null || requested.isBlank()) {
+            String extension = filename.substring(filename.lastIndexOf('.') + 1).toLowerCase(Locale.ROOT);
+            requested = extension.equals("png") ? "png" : "jpeg";
+        }
+        requested = requested.toLowerCase(Locale.ROOT);
+        if (requested.equals("jpg")) {
+            requested = "jpeg";
+        }
+        if (!requested.equals("jpeg") && !requested.equals("png") && !requested.equals("webp")) {
+            throw new ValidationException("Parameter 'fmt' must be one of jpeg, png or webp");
+        }
+        if (!isFormatSupported(requested)) {
+            throw new ValidationException("Image format '" + requested + "' is not supported by this server");
+        }
+        return requested;
+    }
+
+    private static String extensionOf(String format) {
+        return format.equals("jpeg") ? "jpg" : format;
+    }
+
+    private static long lastModified(Path file) {
+        try {
+            return Files.getLastModifiedTime(file).toMillis();
+        } catch (IOException e) {
+            return 0;
+        }
+    }
+}
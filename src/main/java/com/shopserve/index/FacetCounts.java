@@ -0,0 +1,51 @@
+package com.shopserve.index;
+
+import java.util.HashMap;
+import java.util.Map;
+
+// Product counts per category, brand and price bucket (floor(price / bucketWidth)) for one filter
+public class FacetCounts {
+
+    private final double bucketWidth;
+    private final Map<String, Long> categories = new HashMap<>();
+    private final Map<String, Long> brands = new HashMap<>();
+    private final Map<Long, Long> priceBuckets = new HashMap<>();
+
+    public FacetCounts(double bucketWidth) {
+        this.bucketWidth = bucketWidth;
+    }
+
+    public void addCategory(String category, long count) {
+        categories.merge(category, count, Long::sum);
+    }
+
+    public void addBrand(String brand, long count) {
+        brands.merge(brand, count, Long::sum);
+    }
+
+    public void addPriceBucket(long bucket, long count) {
+        priceBuckets.merge(bucket, count, Long::sum);
+    }
+
+    // Getters
+    public double getBucketWidth() {
+        return bucketWidth;
+    }
+
+    public Map<String, Long> getCategories() {
+        return categories;
+    }
+
+    public Map<String, Long> getBrands() {
+        return brands;
+    }
+
+    public Map<Long, Long> getPriceBuckets() {
+        return priceBuckets;
+    }
+
+    // Every matching product falls into exactly one price bucket
+    public long getTotal() {
+        return priceBuckets.values().stream().mapToLong(Long::longValue).sum();
+    }
+}
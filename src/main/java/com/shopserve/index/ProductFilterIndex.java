@@ -0,0 +1,325 @@
+package com.shopserve.index;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.IntConsumer;
+
+/**
+ * In-memory columnar index answering category/brand/price filters without touching the database.
+ * Category and brand are dictionary-encoded into int columns with one row set per value, and the
+ * price column is mirrored in a price-sorted array so price ranges resolve by binary search.
+ */
+public class ProductFilterIndex {
+
+    private static final int INITIAL_CAPACITY = 1024;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private final Map<Long, Integer> rowsById = new HashMap<>();
+    private final Deque<Integer> freeRows = new ArrayDeque<>();
+    private int rowCount;
+
+    // Columns, addressed by row
+    private long[] ids = new long[INITIAL_CAPACITY];
+    private int[] categoryCodes = new int[INITIAL_CAPACITY];
+    private int[] brandCodes = new int[INITIAL_CAPACITY];
+    private double[] prices = new double[INITIAL_CAPACITY];
+
+    // Live rows ordered by price
+    private double[] sortedPrices = new double[INITIAL_CAPACITY];
+    private int[] sortedRows = new int[INITIAL_CAPACITY];
+    private int liveCount;
+
+    private final Dictionary categories = new Dictionary();
+    private final Dictionary brands = new Dictionary();
+
+    public void put(long id, String category, String brand, double price) {
+        lock.writeLock().lock();
+        try {
+            Integer row = rowsById.get(id);
+            if (row != null) {
+                detach(row);
+            } else {
+                row = allocateRow();
+                rowsById.put(id, row);
+            }
+            attach(row, id, category, brand, price);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(long id) {
+        lock.writeLock().lock();
+        try {
+            Integer row = rowsById.remove(id);
+            if (row != null) {
+                detach(row);
+                freeRows.push(row);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void renameCategory(String oldName, String newName) {
+        lock.writeLock().lock();
+        try {
+            Integer code = categories.codes.remove(oldName);
+            if (code == null) {
+                return;
+            }
+            Integer existing = categories.codes.get(newName);
+            if (existing == null) {
+                categories.codes.put(newName, code);
+                categories.values.set(code, newName);
+                return;
+            }
+
+            // The new name is already encoded, so fold the rows into its code
+            RowBitmap target = categories.rows.get(existing);
+            categories.rows.get(code).forEach(row -> {
+                categoryCodes[row] = existing;
+                target.add(row);
+            });
+            categories.rows.set(code, new RowBitmap());
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void clear() {
+        lock.writeLock().lock();
+        try {
+            rowsById.clear();
+            freeRows.clear();
+            rowCount = 0;
+            liveCount = 0;
+            categories.clear();
+            brands.clear();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return liveCount;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // Returns the ids of matching products in ascending order; null arguments are not filtered on
+    public List<Long> filter(String category, String brand, Double minPrice, Double maxPrice) {
+        lock.readLock().lock();
+        try {
+            List<Long> result = new ArrayList<>();
+            forEachMatch(category, brand, minPrice, maxPrice, row -> result.add(ids[row]));
+            result.sort(null);
+            return result;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // Counts matching products per category, brand and price bucket in a single scan over the matching rows
+    public FacetCounts facets(String category, String brand, Double minPrice, Double maxPrice, double bucketWidth) {
+        lock.readLock().lock();
+        try {
+            long[] categoryCounts = new long[categories.values.size()];
+            long[] brandCounts = new long[brands.values.size()];
+            Map<Long, Long> bucketCounts = new HashMap<>();
+            forEachMatch(category, brand, minPrice, maxPrice, row -> {
+                categoryCounts[categoryCodes[row]]++;
+                brandCounts[brandCodes[row]]++;
+                bucketCounts.merge((long) Math.floor(prices[row] / bucketWidth), 1L, Long::sum);
+            });
+
+            FacetCounts facets = new FacetCounts(bucketWidth);
+            for (int code = 0; code < categoryCounts.length; code++) {
+                if (categoryCounts[code] > 0) {
+                    facets.addCategory(categories.values.get(code), categoryCounts[code]);
+                }
+            }
+            for (int code = 0; code < brandCounts.length; code++) {
+                if (brandCounts[code] > 0) {
+                    facets.addBrand(brands.values.get(code), brandCounts[code]);
+                }
+            }
+            bucketCounts.forEach(facets::addPriceBucket);
+            return facets;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // Must be called with the read lock held
+    private void forEachMatch(String category, String brand, Double minPrice, Double maxPrice, IntConsumer action) {
+        RowBitmap categoryRows = null;
+        if (category != null) {
+            categoryRows = categories.rowsFor(category);
+            if (categoryRows == null) {
+                return;
+            }
+        }
+        RowBitmap brandRows = null;
+        if (brand != null) {
+            brandRows = brands.rowsFor(brand);
+            if (brandRows == null) {
+                return;
+            }
+        }
+
+        double low = minPrice == null ? Double.NEGATIVE_INFINITY : minPrice;
+        double high = maxPrice == null ? Double.POSITIVE_INFINITY : maxPrice;
+        int from = lowerBound(low);
+        int to = upperBound(high);
+        if (from >= to) {
+            return;
+        }
+
+        // Drive the scan from the smallest candidate set and probe the others
+        int priceRangeSize = to - from;
+        RowBitmap driver = smaller(categoryRows, brandRows);
+        if (driver != null && driver.cardinality() < priceRangeSize) {
+            RowBitmap other = driver == categoryRows ? brandRows : categoryRows;
+            driver.forEach(row -> {
+                if ((other == null || other.contains(row)) && prices[row] >= low && prices[row] <= high) {
+                    action.accept(row);
+                }
+            });
+        } else {
+            for (int i = from; i < to; i++) {
+                int row = sortedRows[i];
+                if ((categoryRows == null || categoryRows.contains(row))
+                        && (brandRows == null || brandRows.contains(row))) {
+                    action.accept(row);
+                }
+            }
+        }
+    }
+
+    private static RowBitmap smaller(RowBitmap a, RowBitmap b) {
+        if (a == null) {
+            return b;
+        }
+        if (b == null) {
+            return a;
+        }
+        return a.cardinality() <= b.cardinality() ? a : b;
+    }
+
+    private int allocateRow() {
+        if (!freeRows.isEmpty()) {
+            return freeRows.pop();
+        }
+        if (rowCount == ids.length) {
+            int capacity = ids.length * 2;
+            ids = Arrays.copyOf(ids, capacity);
+            categoryCodes = Arrays.copyOf(categoryCodes, capacity);
+            brandCodes = Arrays.copyOf(brandCodes, capacity);
+            prices = Arrays.copyOf(prices, capacity);
+        }
+        return rowCount++;
+    }
+
+    private void attach(int row, long id, String category, String brand, double price) {
+        ids[row] = id;
+        categoryCodes[row] = categories.encode(category);
+        categories.rows.get(categoryCodes[row]).add(row);
+        brandCodes[row] = brands.encode(brand);
+        brands.rows.get(brandCodes[row]).add(row);
+        prices[row] = price;
+
+        if (liveCount == sortedRows.length) {
+            sortedPrices = Arrays.copyOf(sortedPrices, liveCount * 2);
+            sortedRows = Arrays.copyOf(sortedRows, liveCount * 2);
+        }
+        int pos = upperBound(price);
+        System.arraycopy(sortedPrices, pos, sortedPrices, pos + 1, liveCount - pos);
+        System.arraycopy(sortedRows, pos, sortedRows, pos + 1, liveCount - pos);
+        sortedPrices[pos] = price;
+        sortedRows[pos] = row;
+        liveCount++;
+    }
+
+    private void detach(int row) {
+        categories.rows.get(categoryCodes[row]).remove(row);
+        brands.rows.get(brandCodes[row]).remove(row);
+
+        int pos = lowerBound(prices[row]);
+        while (sortedRows[pos] != row) {
+            pos++;
+        }
+        System.arraycopy(sortedPrices, pos + 1, sortedPrices, pos, liveCount - pos - 1);
+        System.arraycopy(sortedRows, pos + 1, sortedRows, pos, liveCount - pos - 1);
+        liveCount--;
+    }
+
+    // First position whose price is >= value
+    private int lowerBound(double value) {
+        int low = 0;
+        int high = liveCount;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (sortedPrices[mid] < value) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    // First position whose price is > value
+    private int upperBound(double value) {
+        int low = 0;
+        int high = liveCount;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (sortedPrices[mid] <= value) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    private static class Dictionary {
+
+        private final Map<String, Integer> codes = new HashMap<>();
+        private final List<String> values = new ArrayList<>();
+        private final List<RowBitmap> rows = new ArrayList<>();
+
+        int encode(String value) {
+            Integer code = codes.get(value);
+            if (code == null) {
+                code = values.size();
+                codes.put(value, code);
+                values.add(value);
+                rows.add(new RowBitmap());
+            }
+            return code;
+        }
+
+        RowBitmap rowsFor(String value) {
+            Integer code = codes.get(value);
+            return code == null ? null : rows.get(code);
+        }
+
+        void clear() {
+            codes.clear();
+            values.clear();
+            rows.clear();
+        }
+    }
+}
@@ -0,0 +1,354 @@
+package com.shopserve.index;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * In-memory inverted index over product name, brand and description with BM25 ranking.
+ * Terms live in a sorted map so the last query token can be expanded by prefix, which
+ * gives search-as-you-type behaviour without a separate n-gram index.
+ */
+public class ProductSearchIndex {
+
+    private static final float K1 = 1.2f;
+    private static final float B = 0.75f;
+
+    // Field boosts applied to term frequencies (a BM25F-style simplification)
+    private static final int NAME_WEIGHT = 3;
+    private static final int BRAND_WEIGHT = 2;
+    private static final int DESCRIPTION_WEIGHT = 1;
+
+    private static final int MIN_PREFIX_LENGTH = 2;
+    private static final int MAX_PREFIX_EXPANSIONS = 32;
+    private static final float PREFIX_MATCH_FACTOR = 0.5f;
+
+    private static final Set<String> STOP_WORDS = Set.of("a", "an", "and", "for", "in", "of", "on", "the", "to", "with");
+
+    private static final int INITIAL_CAPACITY = 1024;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private final TreeMap<String, Postings> terms = new TreeMap<>();
+    private final Map<Long, Integer> rowsById = new HashMap<>();
+    private final Deque<Integer> freeRows = new ArrayDeque<>();
+    private int rowCount;
+
+    private long[] ids = new long[INITIAL_CAPACITY];
+    private int[] lengths = new int[INITIAL_CAPACITY];
+    private String[][] rowTerms = new String[INITIAL_CAPACITY][];
+
+    private int documentCount;
+    private long totalLength;
+
+    public void put(long id, String name, String brand, String description) {
+        Map<String, Integer> frequencies = new HashMap<>();
+        int length = addTokens(frequencies, name, NAME_WEIGHT)
+                + addTokens(frequencies, brand, BRAND_WEIGHT)
+                + addTokens(frequencies, description, DESCRIPTION_WEIGHT);
+
+        lock.writeLock().lock();
+        try {
+            Integer row = rowsById.get(id);
+            if (row != null) {
+                detach(row);
+            } else {
+                row = allocateRow();
+                rowsById.put(id, row);
+            }
+
+            ids[row] = id;
+            lengths[row] = length;
+            rowTerms[row] = frequencies.keySet().toArray(new String[0]);
+            for (Map.Entry<String, Integer> entry : frequencies.entrySet()) {
+                terms.computeIfAbsent(entry.getKey(), term -> new Postings()).add(row, entry.getValue());
+            }
+            documentCount++;
+            totalLength += length;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(long id) {
+        lock.writeLock().lock();
+        try {
+            Integer row = rowsById.remove(id);
+            if (row != null) {
+                detach(row);
+                freeRows.push(row);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void clear() {
+        lock.writeLock().lock();
+        try {
+            terms.clear();
+            rowsById.clear();
+            freeRows.clear();
+            rowCount = 0;
+            documentCount = 0;
+            totalLength = 0;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return documentCount;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // Returns up to limit product ids ordered by descending relevance
+    public List<SearchHit> search(String query, int limit) {
+        List<String> tokens = tokenize(query);
+        if (tokens.isEmpty() || limit < 1) {
+            return List.of();
+        }
+
+        lock.readLock().lock();
+        try {
+            if (documentCount == 0) {
+                return List.of();
+            }
+
+            List<List<Map.Entry<String, Postings>>> tokenMatches = new ArrayList<>(tokens.size());
+            long postingCount = 0;
+            for (int i = 0; i < tokens.size(); i++) {
+                String token = tokens.get(i);
+                boolean expand = i == tokens.size() - 1 && token.length() >= MIN_PREFIX_LENGTH;
+                List<Map.Entry<String, Postings>> matches = matches(token, expand);
+                for (Map.Entry<String, Postings> match : matches) {
+                    postingCount += match.getValue().size;
+                }
+                tokenMatches.add(matches);
+            }
+            if (postingCount == 0) {
+                return List.of();
+            }
+
+            // Sized by the postings the query reads, so a selective query on a large index allocates little
+            float averageLength = (float) totalLength / documentCount;
+            Scores scores = new Scores((int) Math.min(postingCount, rowCount));
+            for (int i = 0; i < tokens.size(); i++) {
+                String token = tokens.get(i);
+                for (Map.Entry<String, Postings> match : tokenMatches.get(i)) {
+                    float factor = match.getKey().equals(token) ? 1.0f : PREFIX_MATCH_FACTOR;
+                    Postings postings = match.getValue();
+                    float idf = (float) Math.log(1 + (documentCount - postings.size + 0.5) / (postings.size + 0.5));
+
+                    for (int p = 0; p < postings.size; p++) {
+                        int row = postings.rows[p];
+                        int tf = postings.frequencies[p];
+                        float norm = K1 * (1 - B + B * lengths[row] / averageLength);
+                        scores.add(row, factor * idf * (tf * (K1 + 1)) / (tf + norm));
+                    }
+                }
+            }
+
+            // Keep the best hits in a min-heap of bounded size; equal scores rank the lower product id first
+            Comparator<SearchHit> ranking = Comparator.comparingDouble(SearchHit::getScore).reversed()
+                    .thenComparingLong(SearchHit::getProductId);
+            PriorityQueue<SearchHit> best = new PriorityQueue<>(ranking.reversed());
+            for (int slot = 0; slot < scores.rows.length; slot++) {
+                int row = scores.rows[slot];
+                if (row == Scores.EMPTY) {
+                    continue;
+                }
+                SearchHit hit = new SearchHit(ids[row], scores.values[slot]);
+                if (best.size() < limit) {
+                    best.add(hit);
+                } else if (ranking.compare(hit, best.peek()) < 0) {
+                    best.poll();
+                    best.add(hit);
+                }
+            }
+
+            List<SearchHit> hits = new ArrayList<>(best);
+            hits.sort(ranking);
+            return hits;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public static List<String> tokenize(String text) {
+        List<String> tokens = new ArrayList<>();
+        if (text == null) {
+            return tokens;
+        }
+
+        String lower = text.toLowerCase(Locale.ROOT);
+        int start = -1;
+        for (int i = 0; i <= lower.length(); i++) {
+            boolean wordChar = i < lower.length() && Character.isLetterOrDigit(lower.charAt(i));
+            if (wordChar && start < 0) {
+                start = i;
+            } else if (!wordChar && start >= 0) {
+                String token = lower.substring(start, i);
+                if (!STOP_WORDS.contains(token)) {
+                    tokens.add(token);
+                }
+                start = -1;
+            }
+        }
+        return tokens;
+    }
+
+    private List<Map.Entry<String, Postings>> matches(String token, boolean expand) {
+        if (!expand) {
+            Postings postings = terms.get(token);
+            return postings == null ? List.of() : List.of(Map.entry(token, postings));
+        }
+
+        // Prefer the most frequent completions so short prefixes stay cheap
+        NavigableMap<String, Postings> completions = terms.subMap(token, true, token + Character.MAX_VALUE, false);
+        List<Map.Entry<String, Postings>> matches = new ArrayList<>(completions.entrySet());
+        if (matches.size() > MAX_PREFIX_EXPANSIONS) {
+            matches.sort(Comparator.comparingInt((Map.Entry<String, Postings> entry) -> entry.getValue().size).reversed());
+            matches = new ArrayList<>(matches.subList(0, MAX_PREFIX_EXPANSIONS));
+            Postings exact = terms.get(token);
+            if (exact != null && matches.stream().noneMatch(entry -> entry.getKey().equals(token))) {
+                matches.add(Map.entry(token, exact));
+            }
+        }
+        return matches;
+    }
+
+    private static int addTokens(Map<String, Integer> frequencies, String text, int weight) {
+        List<String> tokens = tokenize(text);
+        for (String token : tokens) {
+            frequencies.merge(token, weight, Integer::sum);
+        }
+        return tokens.size() * weight;
+    }
+
+    private int allocateRow() {
+        if (!freeRows.isEmpty()) {
+            return freeRows.pop();
+        }
+        if (rowCount == ids.length) {
+            int capacity = ids.length * 2;
+            ids = Arrays.copyOf(ids, capacity);
+            lengths = Arrays.copyOf(lengths, capacity);
+            rowTerms = Arrays.copyOf(rowTerms, capacity);
+        }
+        return rowCount++;
+    }
+
+    private void detach(int row) {
+        for (String term : rowTerms[row]) {
+            Postings postings = terms.get(term);
+            postings.remove(row);
+            if (postings.size == 0) {
+                terms.remove(term);
+            }
+        }
+        rowTerms[row] = null;
+        documentCount--;
+        totalLength -= lengths[row];
+    }
+
+    // Postings sorted by row; a full load allocates rows in ascending order, so adds are nearly always appends
+    private static class Postings {
+
+        private int[] rows = new int[2];
+        private int[] frequencies = new int[2];
+        private int size;
+
+        void add(int row, int frequency) {
+            int pos = Arrays.binarySearch(rows, 0, size, row);
+            if (pos >= 0) {
+                frequencies[pos] = frequency;
+                return;
+            }
+            pos = -pos - 1;
+            if (size == rows.length) {
+                rows = Arrays.copyOf(rows, size * 2);
+                frequencies = Arrays.copyOf(frequencies, size * 2);
+            }
+            System.arraycopy(rows, pos, rows, pos + 1, size - pos);
+            System.arraycopy(frequencies, pos, frequencies, pos + 1, size - pos);
+            rows[pos] = row;
+            frequencies[pos] = frequency;
+            size++;
+        }
+
+        void remove(int row) {
+            int pos = Arrays.binarySearch(rows, 0, size, row);
+            if (pos < 0) {
+                return;
+            }
+            System.arraycopy(rows, pos + 1, rows, pos, size - pos - 1);
+            System.arraycopy(frequencies, pos + 1, frequencies, pos, size - pos - 1);
+            size--;
+        }
+    }
+
+    // Open-addressing map from row to accumulated score; never resized, as it is sized for every row it can receive
+    private static class Scores {
+
+        static final int EMPTY = -1;
+
+        private final int[] rows;
+        private final float[] values;
+        private final int mask;
+        private final int shift;
+
+        Scores(int expectedRows) {
+            int capacity = Integer.highestOneBit(Math.max(8, expectedRows) * 2 - 1) << 1;
+            rows = new int[capacity];
+            values = new float[capacity];
+            mask = capacity - 1;
+            shift = Integer.numberOfLeadingZeros(capacity) + 1;
+            Arrays.fill(rows, EMPTY);
+        }
+
+        void add(int row, float score) {
+            // Fibonacci hashing spreads the dense, sequential row numbers over the table
+            int slot = (row * 0x9E3779B9) >>> shift;
+            while (rows[slot] != EMPTY && rows[slot] != row) {
+                slot = (slot + 1) & mask;
+            }
+            rows[slot] = row;
+            values[slot] += score;
+        }
+    }
+
+    public static class SearchHit {
+
+        private final long productId;
+        private final float score;
+
+        public SearchHit(long productId, float score) {
+            this.productId = productId;
+            this.score = score;
+        }
+
+        public long getProductId() {
+            return productId;
+        }
+
+        public float getScore() {
+            return score;
+        }
+    }
+}
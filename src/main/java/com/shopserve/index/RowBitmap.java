@@ -0,0 +1,109 @@
+package com.shopserve.index;
+
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.function.IntConsumer;
+
+/**
+ * Set of index rows that is kept as a sorted int array while sparse and switches to a
+ * bitset once dense, in the spirit of Roaring bitmap containers. Long-tail brands with a
+ * handful of products stay small while large categories get constant-time membership tests.
+ */
+class RowBitmap {
+
+    private static final int ARRAY_LIMIT = 4096;
+
+    private int[] array = new int[4];
+    private BitSet bits;
+    private int size;
+
+    void add(int row) {
+        if (bits != null) {
+            if (!bits.get(row)) {
+                bits.set(row);
+                size++;
+            }
+            return;
+        }
+
+        int pos = Arrays.binarySearch(array, 0, size, row);
+        if (pos >= 0) {
+            return;
+        }
+        if (size == ARRAY_LIMIT) {
+            toBitSet();
+            bits.set(row);
+            size++;
+            return;
+        }
+
+        pos = -pos - 1;
+        if (size == array.length) {
+            array = Arrays.copyOf(array, size * 2);
+        }
+        System.arraycopy(array, pos, array, pos + 1, size - pos);
+        array[pos] = row;
+        size++;
+    }
+
+    void remove(int row) {
+        if (bits != null) {
+            if (bits.get(row)) {
+                bits.clear(row);
+                size--;
+                if (size < ARRAY_LIMIT / 2) {
+                    toArray();
+                }
+            }
+            return;
+        }
+
+        int pos = Arrays.binarySearch(array, 0, size, row);
+        if (pos < 0) {
+            return;
+        }
+        System.arraycopy(array, pos + 1, array, pos, size - pos - 1);
+        size--;
+    }
+
+    boolean contains(int row) {
+        if (bits != null) {
+            return bits.get(row);
+        }
+        return Arrays.binarySearch(array, 0, size, row) >= 0;
+    }
+
+    int cardinality() {
+        return size;
+    }
+
+    void forEach(IntConsumer action) {
+        if (bits != null) {
+            for (int row = bits.nextSetBit(0); row >= 0; row = bits.nextSetBit(row + 1)) {
+                action.accept(row);
+            }
+            return;
+        }
+        for (int i = 0; i < size; i++) {
+            action.accept(array[i]);
+        }
+    }
+
+    private void toBitSet() {
+        bits = new BitSet(array[size - 1] + 1);
+        for (int i = 0; i < size; i++) {
+            bits.set(array[i]);
+        }
+        array = null;
+    }
+
+    private void toArray() {
+        int[] rows = new int[Math.max(4, size * 2)];
+        int i = 0;
+        for (int row = bits.nextSetBit(0); row >= 0; row = bits.nextSetBit(row + 1)) {
+            rows[i++] = row;
+        }
+        array = rows;
+        bits = null;
+    }
+}
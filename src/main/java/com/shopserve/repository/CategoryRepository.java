@@ -1,7 +1,10 @@
 package com.shopserve.repository;
 
+import com.shopserve.dto.EntityVersion;
 import com.shopserve.entity.Category;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.util.Optional;
@@ -12,4 +15,7 @@ public interface CategoryRepository extends JpaRepository<Category, Long> {
     Optional<Category> findByName(String name);
     
     boolean existsByName(String name);
+
+    @Query("SELECT new com.shopserve.dto.EntityVersion(c.version, c.updatedAt) FROM Category c WHERE c.id = :id")
+    Optional<EntityVersion> findVersionById(@Param("id") Long id);
 } 
\ No newline at end of file
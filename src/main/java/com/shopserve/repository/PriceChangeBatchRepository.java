@@ -0,0 +1,13 @@
+package com.shopserve.repository;
+
+import com.shopserve.entity.PriceChangeBatch;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface PriceChangeBatchRepository extends JpaRepository<PriceChangeBatch, Long> {
+
+    List<PriceChangeBatch> findTop50ByOrderByIdDesc();
+}
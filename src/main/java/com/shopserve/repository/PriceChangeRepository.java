@@ -0,0 +1,22 @@
+package com.shopserve.repository;
+
+import com.shopserve.entity.PriceChange;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface PriceChangeRepository extends JpaRepository<PriceChange, PriceChange.Key> {
+
+    @Query("SELECT pc FROM PriceChange pc WHERE pc.batchId = :batchId AND pc.productId > :afterProductId " +
+           "ORDER BY pc.productId")
+    List<PriceChange> findPage(
+            @Param("batchId") Long batchId,
+            @Param("afterProductId") Long afterProductId,
+            Pageable pageable
+    );
+}
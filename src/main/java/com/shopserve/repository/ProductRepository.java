@@ -1,15 +1,30 @@
 package com.shopserve.repository;
 
+import com.shopserve.dto.EntityVersion;
+import com.shopserve.dto.ProductResponse;
+import com.shopserve.entity.Category;
+import com.shopserve.entity.ImageStatus;
 import com.shopserve.entity.Product;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 
 @Repository
-public interface ProductRepository extends JpaRepository<Product, Long> {
+public interface ProductRepository extends JpaRepository<Product, Long>, ProductRepositoryCustom {
+
+    // Builds ProductResponse rows directly from a single join, so the lazy category is never initialized per row
+    String RESPONSE_SELECT = "SELECT new com.shopserve.dto.ProductResponse(" +
+            "p.id, p.name, p.brand, p.price, p.imageUrl, p.imageStatus, c.name, p.description, p.version, p.updatedAt) " +
+            "FROM Product p JOIN p.category c ";
     
     List<Product> findByCategoryName(String categoryName);
     
@@ -30,4 +45,121 @@ public interface ProductRepository extends JpaRepository<Product, Long> {
             @Param("minPrice") Double minPrice,
             @Param("maxPrice") Double maxPrice
     );
-} 
\ No newline at end of file
+
+    @Query("SELECT p FROM Product p JOIN FETCH p.category WHERE p.id = :id")
+    Optional<Product> findWithCategoryById(@Param("id") Long id);
+
+    // Bulk updates bypass @Version and lifecycle callbacks, so they must check and bump version themselves
+    @Transactional
+    @Modifying
+    @Query("UPDATE Product p SET p.imageUrl = :imageUrl, p.imageStatus = :imageStatus, " +
+           "p.version = p.version + 1, p.updatedAt = :updatedAt WHERE p.id = :id AND p.version = :version")
+    int updateImage(
+            @Param("id") Long id,
+            @Param("imageUrl") String imageUrl,
+            @Param("imageStatus") ImageStatus imageStatus,
+            @Param("version") Long version,
+            @Param("updatedAt") LocalDateTime updatedAt
+    );
+
+    @Query("SELECT new com.shopserve.dto.EntityVersion(p.version, p.updatedAt, c.version, c.updatedAt) " +
+           "FROM Product p JOIN p.category c WHERE p.id = :id")
+    Optional<EntityVersion> findVersionById(@Param("id") Long id);
+
+    boolean existsByImageUrl(String imageUrl);
+
+    @Query("SELECT p.id FROM Product p WHERE p.imageStatus = :imageStatus")
+    List<Long> findIdsByImageStatus(@Param("imageStatus") ImageStatus imageStatus);
+
+    boolean existsByCategoryId(Long categoryId);
+
+    long countByCategoryId(Long categoryId);
+
+    @Transactional
+    @Modifying
+    @Query("UPDATE Product p SET p.category = :target, p.version = p.version + 1, p.updatedAt = :updatedAt " +
+           "WHERE p.category.id = :sourceId")
+    int moveAllToCategory(
+            @Param("sourceId") Long sourceId,
+            @Param("target") Category target,
+            @Param("updatedAt") LocalDateTime updatedAt
+    );
+
+    @Transactional
+    @Modifying
+    @Query("DELETE FROM Product p WHERE p.category.id = :categoryId")
+    int deleteAllByCategoryId(@Param("categoryId") Long categoryId);
+
+    @Query("SELECT p.imageUrl, COUNT(p) FROM Product p WHERE p.imageUrl IS NOT NULL GROUP BY p.imageUrl")
+    List<Object[]> countByImageUrl();
+
+    @Query(RESPONSE_SELECT)
+    List<ProductResponse> findAllResponses();
+
+    @Query(RESPONSE_SELECT + "WHERE p.id = :id")
+    Optional<ProductResponse> findResponseById(@Param("id") Long id);
+
+    @Query(RESPONSE_SELECT + "WHERE p.id IN :ids")
+    List<ProductResponse> findResponsesByIdIn(@Param("ids") Collection<Long> ids);
+
+    @Query(RESPONSE_SELECT + "WHERE c.name = :categoryName")
+    List<ProductResponse> findResponsesByCategoryName(@Param("categoryName") String categoryName);
+
+    @Query(RESPONSE_SELECT + "WHERE p.brand = :brand")
+    List<ProductResponse> findResponsesByBrand(@Param("brand") String brand);
+
+    @Query(RESPONSE_SELECT + "WHERE p.price BETWEEN :minPrice AND :maxPrice")
+    List<ProductResponse> findResponsesByPriceBetween(
+            @Param("minPrice") Double minPrice,
+            @Param("maxPrice") Double maxPrice
+    );
+
+    @Query(RESPONSE_SELECT + "WHERE " +
+           "(:categoryName IS NULL OR c.name = :categoryName) AND " +
+           "(:brand IS NULL OR p.brand = :brand) AND " +
+           "(:minPrice IS NULL OR p.price >= :minPrice) AND " +
+           "(:maxPrice IS NULL OR p.price <= :maxPrice)")
+    List<ProductResponse> findResponsesByFilters(
+            @Param("categoryName") String categoryName,
+            @Param("brand") String brand,
+            @Param("minPrice") Double minPrice,
+            @Param("maxPrice") Double maxPrice
+    );
+
+    // Keyset pagination: each page seeks past the last row of the previous one instead of using OFFSET
+    @Query(RESPONSE_SELECT + "WHERE p.id > :afterId ORDER BY p.id")
+    List<ProductResponse> findPageOrderById(@Param("afterId") Long afterId, Pageable pageable);
+
+    @Query(RESPONSE_SELECT + "WHERE p.id > :afterId AND " +
+           "(:categoryName IS NULL OR c.name = :categoryName) AND " +
+           "(:brand IS NULL OR p.brand = :brand) AND " +
+           "(:minPrice IS NULL OR p.price >= :minPrice) AND " +
+           "(:maxPrice IS NULL OR p.price <= :maxPrice) " +
+           "ORDER BY p.id")
+    List<ProductResponse> findFilteredPageOrderById(
+            @Param("afterId") Long afterId,
+            @Param("categoryName") String categoryName,
+            @Param("brand") String brand,
+            @Param("minPrice") Double minPrice,
+            @Param("maxPrice") Double maxPrice,
+            Pageable pageable
+    );
+
+    @Query(RESPONSE_SELECT + "WHERE " +
+           "p.price > :afterPrice OR (p.price = :afterPrice AND p.id > :afterId) " +
+           "ORDER BY p.price, p.id")
+    List<ProductResponse> findPageOrderByPrice(
+            @Param("afterPrice") Double afterPrice,
+            @Param("afterId") Long afterId,
+            Pageable pageable
+    );
+
+    @Query(RESPONSE_SELECT + "WHERE " +
+           "p.name > :afterName OR (p.name = :afterName AND p.id > :afterId) " +
+           "ORDER BY p.name, p.id")
+    List<ProductResponse> findPageOrderByName(
+            @Param("afterName") String afterName,
+            @Param("afterId") Long afterId,
+            Pageable pageable
+    );
+}
@@ -0,0 +1,15 @@
+package com.shopserve.repository;
+
+import com.shopserve.dto.ProductResponse;
+
+import java.util.List;
+import java.util.stream.Stream;
+
+public interface ProductRepositoryCustom {
+
+    // Forward-only cursor over the whole catalog; must be consumed and closed inside a transaction
+    Stream<ProductResponse> streamAllResponses(int fetchSize);
+
+    // Rows of (category name, brand, price bucket, count) grouped in the database; null filters are omitted
+    List<Object[]> countFacets(String categoryName, String brand, Double minPrice, Double maxPrice, double bucketWidth);
+}
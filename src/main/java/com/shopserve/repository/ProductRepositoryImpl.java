@@ -0,0 +1,65 @@
+package com.shopserve.repository;
+
+import com.shopserve.dto.ProductResponse;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.TypedQuery;
+import org.hibernate.jpa.HibernateHints;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+
+public class ProductRepositoryImpl implements ProductRepositoryCustom {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public Stream<ProductResponse> streamAllResponses(int fetchSize) {
+        return entityManager.createQuery(ProductRepository.RESPONSE_SELECT + "ORDER BY p.id", ProductResponse.class)
+                .setHint(HibernateHints.HINT_FETCH_SIZE, fetchSize)
+                .setHint(HibernateHints.HINT_READ_ONLY, true)
+                .getResultStream();
+    }
+
+    @Override
+    public List<Object[]> countFacets(String categoryName, String brand, Double minPrice, Double maxPrice, double bucketWidth) {
+        List<String> conditions = new ArrayList<>();
+        if (categoryName != null) {
+            conditions.add("c.name = :categoryName");
+        }
+        if (brand != null) {
+            conditions.add("p.brand = :brand");
+        }
+        if (minPrice != null) {
+            conditions.add("p.price >= :minPrice");
+        }
+        if (maxPrice != null) {
+            conditions.add("p.price <= :maxPrice");
+        }
+
+        // The bucket is computed in a derived table, so the bound width appears once rather than in SELECT and GROUP BY
+        String jpql = "SELECT f.category, f.brand, f.bucket, COUNT(*) FROM ("
+                + "SELECT c.name AS category, p.brand AS brand, FLOOR(p.price / :bucketWidth) AS bucket "
+                + "FROM Product p JOIN p.category c "
+                + (conditions.isEmpty() ? "" : "WHERE " + String.join(" AND ", conditions) + " ")
+                + ") f GROUP BY f.category, f.brand, f.bucket";
+
+        TypedQuery<Object[]> query = entityManager.createQuery(jpql, Object[].class)
+                .setParameter("bucketWidth", bucketWidth);
+        if (categoryName != null) {
+            query.setParameter("categoryName", categoryName);
+        }
+        if (brand != null) {
+            query.setParameter("brand", brand);
+        }
+        if (minPrice != null) {
+            query.setParameter("minPrice", minPrice);
+        }
+        if (maxPrice != null) {
+            query.setParameter("maxPrice", maxPrice);
+        }
+        return query.getResultList();
+    }
+}
@@ -1,14 +1,22 @@
 package com.shopserve.service;
 
+import com.shopserve.cache.LruCache;
+import com.shopserve.dto.BulkUpdateResult;
 import com.shopserve.dto.CategoryRequest;
 import com.shopserve.dto.CategoryResponse;
+import com.shopserve.dto.EntityVersion;
 import com.shopserve.entity.Category;
+import com.shopserve.event.CatalogChangedEvent;
+import com.shopserve.event.CategoryChangedEvent;
 import com.shopserve.exception.ResourceNotFoundException;
 import com.shopserve.exception.ValidationException;
 import com.shopserve.repository.CategoryRepository;
+import com.shopserve.repository.ProductRepository;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.stream.Collectors;
 
@@ -18,6 +26,15 @@ public class CategoryService {
     @Autowired
     private CategoryRepository categoryRepository;
 
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Autowired
+    private LruCache<Long, CategoryResponse> categoryCache;
+
     public List<CategoryResponse> getAllCategories() {
         return categoryRepository.findAll().stream()
                 .map(this::convertToResponse)
@@ -25,9 +42,24 @@ public class CategoryService {
     }
 
     public CategoryResponse getCategoryById(Long id) {
-        Category category = categoryRepository.findById(id)
+        return categoryCache.get(id, key -> categoryRepository.findById(key)
+                .map(this::convertToResponse)
+                .orElseThrow(() -> new ResourceNotFoundException("Category", "id", key)));
+    }
+
+    // Skips a cached copy older than a version the caller has already seen, e.g. one used as an ETag
+    public CategoryResponse getCategoryById(Long id, long minimumVersion) {
+        CategoryResponse category = getCategoryById(id);
+        if (category.getVersion() != null && category.getVersion() < minimumVersion) {
+            categoryCache.invalidate(id);
+            category = getCategoryById(id);
+        }
+        return category;
+    }
+
+    public EntityVersion getCategoryVersion(Long id) {
+        return categoryRepository.findVersionById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Category", "id", id));
-        return convertToResponse(category);
     }
 
     public CategoryResponse createCategory(CategoryRequest request) {
@@ -40,7 +72,9 @@ public class CategoryService {
         category.setDescription(request.getDescription());
 
         Category savedCategory = categoryRepository.save(category);
-        return convertToResponse(savedCategory);
+        CategoryResponse response = convertToResponse(savedCategory);
+        eventPublisher.publishEvent(new CategoryChangedEvent(null, response));
+        return response;
     }
 
     public CategoryResponse updateCategory(Long id, CategoryRequest request) {
@@ -53,23 +87,56 @@ public class CategoryService {
             throw new ValidationException("Category with name '" + request.getName() + "' already exists");
         }
 
+        CategoryResponse previous = convertToResponse(category);
         category.setName(request.getName());
         category.setDescription(request.getDescription());
 
         Category updatedCategory = categoryRepository.save(category);
-        return convertToResponse(updatedCategory);
+        CategoryResponse response = convertToResponse(updatedCategory);
+        eventPublisher.publishEvent(new CategoryChangedEvent(previous, response));
+        return response;
     }
 
     public void deleteCategory(Long id) {
         Category category = categoryRepository.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Category", "id", id));
 
-        // Check if category has products
-        if (!category.getProducts().isEmpty()) {
-            throw new ValidationException("Cannot delete category with existing products");
+        // Check if category has products without initializing the products collection
+        if (productRepository.existsByCategoryId(id)) {
+            throw new ValidationException("Cannot delete category with " + productRepository.countByCategoryId(id)
+                    + " existing products");
         }
 
         categoryRepository.delete(category);
+        eventPublisher.publishEvent(new CategoryChangedEvent(convertToResponse(category), null));
+    }
+
+    // Reassigns every product of the source category with one UPDATE statement
+    public BulkUpdateResult moveProducts(Long sourceId, Long targetId) {
+        if (sourceId.equals(targetId)) {
+            throw new ValidationException("Source and target category must differ");
+        }
+        Category source = getCategoryEntityById(sourceId);
+        Category target = getCategoryEntityById(targetId);
+
+        int moved = productRepository.moveAllToCategory(source.getId(), target, LocalDateTime.now());
+        if (moved > 0) {
+            eventPublisher.publishEvent(new CatalogChangedEvent(
+                    "Moved products from category " + sourceId + " to " + targetId, moved));
+        }
+        return new BulkUpdateResult("move", moved);
+    }
+
+    // Deletes every product of the category with one DELETE statement
+    public BulkUpdateResult deleteProducts(Long categoryId) {
+        Category category = getCategoryEntityById(categoryId);
+
+        int deleted = productRepository.deleteAllByCategoryId(category.getId());
+        if (deleted > 0) {
+            eventPublisher.publishEvent(new CatalogChangedEvent(
+                    "Deleted products of category " + categoryId, deleted));
+        }
+        return new BulkUpdateResult("delete", deleted);
     }
 
     public Category getCategoryEntityById(Long id) {
@@ -81,7 +148,9 @@ public class CategoryService {
         return new CategoryResponse(
                 category.getId(),
                 category.getName(),
-                category.getDescription()
+                category.getDescription(),
+                category.getVersion(),
+                category.getUpdatedAt()
         );
     }
 } 
\ No newline at end of file
@@ -0,0 +1,431 @@
+package com.shopserve.service;
+
+import com.shopserve.dto.ImageIngestionStats;
+import com.shopserve.dto.ProductResponse;
+import com.shopserve.entity.ImageStatus;
+import com.shopserve.event.ProductChangedEvent;
+import com.shopserve.exception.ValidationException;
+import com.shopserve.image.ImageStore;
+import com.shopserve.repository.ProductRepository;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Moves image processing off the request thread. Uploads are staged to disk while the request is
+ * still open, the product is saved with a pending image, and a bounded worker pool validates the
+ * file and adds it to the content-addressed {@link ImageStore} before pointing the product at it.
+ * Staged files are claimed by product id, so uploads the pool could not accept, or that a restart
+ * interrupted, are re-submitted by a periodic recovery scan instead of staying pending forever.
+ */
+@Service
+public class ImageIngestionService {
+
+    private static final Logger logger = LoggerFactory.getLogger(ImageIngestionService.class);
+
+    private static final int MAX_APPLY_ATTEMPTS = 5;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Autowired
+    private ImageStore imageStore;
+
+    // Unclaimed staged files older than this belong to requests that never saved their product
+    @Value("${shopserve.images.staging.max-age-minutes:60}")
+    private long stagingMaxAgeMinutes;
+
+    private final ThreadPoolExecutor executor;
+    private final int queueCapacity;
+
+    // Latest staged upload per product until it is applied, so a slow older upload cannot overwrite a newer one
+    private final ConcurrentHashMap<Long, String> latestUploads = new ConcurrentHashMap<>();
+
+    // Product id per staged upload that is queued or being ingested, so recovery never submits one twice
+    private final ConcurrentHashMap<String, Long> inFlight = new ConcurrentHashMap<>();
+
+    // Serializes submissions with the recovery scan; a lock so waiting virtual threads do not pin their carrier
+    private final ReentrantLock submitLock = new ReentrantLock();
+
+    private final AtomicLong submitted = new AtomicLong();
+    private final AtomicLong completed = new AtomicLong();
+    private final AtomicLong failed = new AtomicLong();
+    private final AtomicLong totalLatencyMillis = new AtomicLong();
+    private final AtomicLong maxLatencyMillis = new AtomicLong();
+
+    private final DistributionSummary uploadSize;
+    private final Timer stagingTimer;
+    private final Timer readyTimer;
+    private final Timer failedTimer;
+
+    public ImageIngestionService(@Value("${shopserve.images.workers:2}") int workers,
+                                 @Value("${shopserve.images.queue-capacity:100}") int queueCapacity,
+                                 MeterRegistry meterRegistry) {
+        this.queueCapacity = queueCapacity;
+        AtomicInteger threadCount = new AtomicInteger();
+        // A full queue rejects the upload; it stays pending on disk and is retried by the recovery scan
+        this.executor = new ThreadPoolExecutor(workers, workers, 60, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "image-ingest-" + threadCount.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.AbortPolicy());
+
+        this.uploadSize = DistributionSummary.builder("shopserve.images.upload.size")
+                .description("Size of uploaded product images")
+                .baseUnit("bytes")
+                .register(meterRegistry);
+        this.stagingTimer = Timer.builder("shopserve.images.upload.staging")
+                .description("Time the request thread spends copying an upload to the staging directory")
+                .register(meterRegistry);
+        // Measured from submission, so queueing delay is included
+        this.readyTimer = ingestionTimer(meterRegistry, "ready");
+        this.failedTimer = ingestionTimer(meterRegistry, "failed");
+        Gauge.builder("shopserve.images.queue.size", executor, pool -> pool.getQueue().size())
+                .description("Uploads waiting for an ingestion worker")
+                .register(meterRegistry);
+        Gauge.builder("shopserve.images.workers.active", executor, ThreadPoolExecutor::getActiveCount)
+                .description("Ingestion workers currently processing an upload")
+                .register(meterRegistry);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdown();
+    }
+
+    // Copies the multipart upload into the staging directory; runs on the request thread before the product is saved
+    public StagedImage stage(MultipartFile file) {
+        long start = System.nanoTime();
+        try {
+            StagedImage staged = new StagedImage(imageStore.stage(file));
+            uploadSize.record(file.getSize());
+            return staged;
+        } catch (IOException e) {
+            throw new ValidationException("Failed to save image: " + e.getMessage());
+        } finally {
+            stagingTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    // Hands a staged upload to the worker pool; the product must already be saved with a pending image
+    public void submit(Long productId, StagedImage image) {
+        StagedImage claimed = claim(productId, image);
+        submitLock.lock();
+        try {
+            String previous = latestUploads.put(productId, claimed.getKey());
+            if (previous != null && !previous.equals(claimed.getKey()) && !inFlight.containsKey(previous)) {
+                // An older upload left pending by a full queue is superseded before it was ever picked up
+                deleteQuietly(claimed.getPath().resolveSibling(previous));
+            }
+            enqueue(productId, claimed);
+        } finally {
+            submitLock.unlock();
+        }
+    }
+
+    // Drops a staged upload whose product could not be saved
+    public void discard(StagedImage image) {
+        deleteQuietly(image.getPath());
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void recoverPendingUploads() {
+        retryPendingUploads(true);
+    }
+
+    @Scheduled(fixedDelayString = "${shopserve.images.retry-interval-ms:60000}",
+            initialDelayString = "${shopserve.images.retry-interval-ms:60000}")
+    public void retryPendingUploads() {
+        retryPendingUploads(false);
+    }
+
+    public ImageIngestionStats stats() {
+        long done = completed.get() + failed.get();
+        return new ImageIngestionStats(
+                executor.getQueue().size(),
+                queueCapacity,
+                executor.getActiveCount(),
+                submitted.get(),
+                completed.get(),
+                failed.get(),
+                done == 0 ? 0.0 : (double) totalLatencyMillis.get() / done,
+                maxLatencyMillis.get());
+    }
+
+    // Re-submits claimed uploads of pending products; at startup, pending products without an upload are failed
+    private void retryPendingUploads(boolean startup) {
+        List<Path> stagedFiles;
+        try {
+            stagedFiles = imageStore.listStaged();
+        } catch (IOException e) {
+            logger.warn("Could not list staged images: {}", e.getMessage());
+            return;
+        }
+        long cutoff = System.currentTimeMillis() - Duration.ofMinutes(stagingMaxAgeMinutes).toMillis();
+
+        int resubmitted = 0;
+        submitLock.lock();
+        try {
+            // Read under the lock, so every product submitted before this point is already seen as pending
+            Set<Long> pendingIds = new HashSet<>(productRepository.findIdsByImageStatus(ImageStatus.PENDING));
+
+            // The newest claimed upload per product wins, as it would have in the original submission order
+            Map<Long, Path> newestUploads = new HashMap<>();
+            for (Path file : stagedFiles) {
+                String key = file.getFileName().toString();
+                if (inFlight.containsKey(key)) {
+                    continue;
+                }
+                Long productId = ImageStore.claimedProductId(file);
+                if (productId == null) {
+                    if (lastModifiedMillis(file) < cutoff) {
+                        deleteQuietly(file);
+                    }
+                    continue;
+                }
+                if (!pendingIds.contains(productId)) {
+                    latestUploads.remove(productId, key);
+                    deleteQuietly(file);
+                    continue;
+                }
+                // An older upload still in flight does not block this one; it is dropped once it sees a newer latest
+                String latest = latestUploads.get(productId);
+                if (latest != null && !latest.equals(key)) {
+                    deleteQuietly(file);
+                    continue;
+                }
+                Path newest = newestUploads.get(productId);
+                if (newest == null || lastModifiedMillis(file) > lastModifiedMillis(newest)) {
+                    if (newest != null) {
+                        deleteQuietly(newest);
+                    }
+                    newestUploads.put(productId, file);
+                } else {
+                    deleteQuietly(file);
+                }
+            }
+
+            for (Map.Entry<Long, Path> upload : newestUploads.entrySet()) {
+                StagedImage image = new StagedImage(upload.getValue());
+                latestUploads.put(upload.getKey(), image.getKey());
+                if (enqueue(upload.getKey(), image)) {
+                    resubmitted++;
+                }
+            }
+
+            if (startup) {
+                // Nothing is in flight yet, so a pending product without a staged upload lost it before the restart
+                pendingIds.removeAll(newestUploads.keySet());
+                pendingIds.removeIf(latestUploads::containsKey);
+                pendingIds.forEach(productId -> markFailed(productId, null));
+                if (!pendingIds.isEmpty()) {
+                    logger.warn("Marked {} products with a lost image upload as failed", pendingIds.size());
+                }
+            }
+        } finally {
+            submitLock.unlock();
+        }
+        if (resubmitted > 0) {
+            logger.info("Re-submitted {} pending image uploads", resubmitted);
+        }
+    }
+
+    // Returns false when the queue is full; the claimed file stays on disk and the product stays pending
+    private boolean enqueue(Long productId, StagedImage image) {
+        inFlight.put(image.getKey(), productId);
+        submitted.incrementAndGet();
+        long submittedAt = System.currentTimeMillis();
+        try {
+            executor.execute(() -> ingest(productId, image, submittedAt));
+            return true;
+        } catch (RejectedExecutionException e) {
+            inFlight.remove(image.getKey());
+            submitted.decrementAndGet();
+            logger.warn("Image ingestion queue is full; product {} stays pending until the next retry", productId);
+            return false;
+        }
+    }
+
+    private StagedImage claim(Long productId, StagedImage image) {
+        try {
+            return new StagedImage(imageStore.claimStaged(image.getPath(), productId));
+        } catch (IOException e) {
+            // Still ingested now; only resuming after a restart needs the claimed name
+            logger.warn("Could not claim staged image {} for product {}", image.getKey(), productId);
+            return image;
+        }
+    }
+
+    private void ingest(Long productId, StagedImage image, long submittedAt) {
+        Path stagedFile = image.getPath();
+        String key = image.getKey();
+        if (!key.equals(latestUploads.get(productId))) {
+            // Superseded by a newer upload for the same product
+            submitted.decrementAndGet();
+            deleteQuietly(stagedFile);
+            inFlight.remove(key);
+            return;
+        }
+
+        boolean success = false;
+        try {
+            String extension = detectExtension(stagedFile);
+            String imageUrl = imageStore.put(stagedFile, extension);
+
+            // If the product was deleted or superseded meanwhile, the unreferenced blob is left to the store's sweeper
+            success = applyImage(productId, key, imageUrl, ImageStatus.READY);
+        } catch (IOException | ValidationException e) {
+            logger.warn("Image ingestion failed for product {}: {}", productId, e.getMessage());
+            markFailed(productId, key);
+        } catch (RuntimeException e) {
+            logger.error("Image ingestion failed for product {}", productId, e);
+            markFailed(productId, key);
+        } finally {
+            deleteQuietly(stagedFile);
+            inFlight.remove(key);
+            boolean superseded = !latestUploads.remove(productId, key) && !success;
+            if (superseded) {
+                submitted.decrementAndGet();
+            } else {
+                long latency = System.currentTimeMillis() - submittedAt;
+                totalLatencyMillis.addAndGet(latency);
+                maxLatencyMillis.accumulateAndGet(latency, Math::max);
+                (success ? completed : failed).incrementAndGet();
+                (success ? readyTimer : failedTimer).record(latency, TimeUnit.MILLISECONDS);
+            }
+        }
+    }
+
+    // A failed upload keeps whatever image the product had before
+    private void markFailed(Long productId, String uploadKey) {
+        applyImage(productId, uploadKey, null, ImageStatus.FAILED);
+    }
+
+    /**
+     * Points the product at an image, or keeps its current one when {@code imageUrl} is null. The update is
+     * conditional on the version just read and on {@code uploadKey} still being the product's latest upload,
+     * so neither a concurrent product update nor a newer upload that finished first is overwritten.
+     */
+    private boolean applyImage(Long productId, String uploadKey, String imageUrl, ImageStatus status) {
+        for (int attempt = 0; attempt < MAX_APPLY_ATTEMPTS; attempt++) {
+            ProductResponse previous = productRepository.findResponseById(productId).orElse(null);
+            if (previous == null || (uploadKey != null && !uploadKey.equals(latestUploads.get(productId)))) {
+                return false;
+            }
+            String url = imageUrl != null ? imageUrl : previous.getImageUrl();
+            if (productRepository.updateImage(productId, url, status, previous.getVersion(), LocalDateTime.now()) == 0) {
+                continue;
+            }
+
+            // Re-read, so the event carries the stored row rather than one pieced together from a stale read
+            productRepository.findResponseById(productId).ifPresent(current ->
+                    eventPublisher.publishEvent(ProductChangedEvent.updated(previous, current)));
+            return true;
+        }
+        logger.warn("Gave up updating the image of product {} after {} concurrent modifications",
+                productId, MAX_APPLY_ATTEMPTS);
+        return false;
+    }
+
+    private static Timer ingestionTimer(MeterRegistry meterRegistry, String outcome) {
+        return Timer.builder("shopserve.images.ingestion")
+                .description("Latency from upload to the image being served or rejected")
+                .tag("outcome", outcome)
+                .register(meterRegistry);
+    }
+
+    // Trusts the file signature rather than the client-supplied name or content type
+    private static String detectExtension(Path file) throws IOException {
+        byte[] header = new byte[12];
+        int read;
+        try (InputStream input = Files.newInputStream(file)) {
+            read = input.readNBytes(header, 0, header.length);
+        }
+
+        if (read >= 3 && (header[0] & 0xFF) == 0xFF && (header[1] & 0xFF) == 0xD8 && (header[2] & 0xFF) == 0xFF) {
+            return ".jpg";
+        }
+        if (read >= 8 && (header[0] & 0xFF) == 0x89 && header[1] == 'P' && header[2] == 'N' && header[3] == 'G') {
+            return ".png";
+        }
+        if (read >= 6 && header[0] == 'G' && header[1] == 'I' && header[2] == 'F' && header[3] == '8') {
+            return ".gif";
+        }
+        if (read >= 12 && header[0] == 'R' && header[1] == 'I' && header[2] == 'F' && header[3] == 'F'
+                && header[8] == 'W' && header[9] == 'E' && header[10] == 'B' && header[11] == 'P') {
+            return ".webp";
+        }
+        throw new ValidationException("Unsupported image format");
+    }
+
+    private static long lastModifiedMillis(Path file) {
+        try {
+            return Files.getLastModifiedTime(file).toMillis();
+        } catch (IOException e) {
+            return Long.MAX_VALUE;
+        }
+    }
+
+    private static void deleteQuietly(Path file) {
+        try {
+            Files.deleteIfExists(file);
+        } catch (IOException e) {
+            logger.warn("Could not delete staged image {}", file);
+        }
+    }
+
+    public static class StagedImage {
+
+        private final Path path;
+
+        StagedImage(Path path) {
+            this.path = path;
+        }
+
+        Path getPath() {
+            return path;
+        }
+
+        String getKey() {
+            return path.getFileName().toString();
+        }
+    }
+}
@@ -0,0 +1,309 @@
+package com.shopserve.service;
+
+import com.shopserve.dto.PercentPriceChangeRequest;
+import com.shopserve.dto.PriceChangeBatchResponse;
+import com.shopserve.dto.PriceChangeResponse;
+import com.shopserve.entity.Category;
+import com.shopserve.entity.PriceChangeBatch;
+import com.shopserve.event.CatalogChangedEvent;
+import com.shopserve.exception.ResourceNotFoundException;
+import com.shopserve.exception.ValidationException;
+import com.shopserve.repository.CategoryRepository;
+import com.shopserve.repository.PriceChangeBatchRepository;
+import com.shopserve.repository.PriceChangeRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Bulk repricing with set-based SQL. Every run is a PriceChangeBatch; each chunk first logs the old
+ * and new price of the products it touches into price_changes and then updates those products from
+ * the log in the same transaction, so the log always matches what was applied.
+ */
+@Service
+public class PriceUpdateService {
+
+    private static final Logger logger = LoggerFactory.getLogger(PriceUpdateService.class);
+
+    public static final int MAX_CHANGES_PAGE_SIZE = 1000;
+    private static final int MAX_REPORTED_ERRORS = 20;
+
+    // Rounded to cents through DECIMAL, which both H2 and PostgreSQL can ROUND to a scale
+    private static final String PERCENT_PRICE_EXPRESSION = "CAST(ROUND(CAST(p.price * ? AS DECIMAL(19, 4)), 2) AS DOUBLE PRECISION)";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private CategoryRepository categoryRepository;
+
+    @Autowired
+    private PriceChangeBatchRepository priceChangeBatchRepository;
+
+    @Autowired
+    private PriceChangeRepository priceChangeRepository;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    private final TransactionTemplate transactionTemplate;
+
+    @Value("${shopserve.pricing.chunk-size:10000}")
+    private int chunkSize;
+
+    public PriceUpdateService(PlatformTransactionManager transactionManager) {
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    public PriceChangeBatchResponse applyPercentChange(PercentPriceChangeRequest request) {
+        Long categoryId = null;
+        if (request.getCategory() != null) {
+            categoryId = categoryRepository.findByName(request.getCategory())
+                    .map(Category::getId)
+                    .orElseThrow(() -> new ResourceNotFoundException("Category", "name", request.getCategory()));
+        }
+
+        List<Object> filterArgs = new ArrayList<>();
+        StringBuilder filter = new StringBuilder();
+        if (request.getBrand() != null) {
+            filter.append(" AND p.brand = ?");
+            filterArgs.add(request.getBrand());
+        }
+        if (categoryId != null) {
+            filter.append(" AND p.category_id = ?");
+            filterArgs.add(categoryId);
+        }
+
+        String logSql = "INSERT INTO price_changes (batch_id, product_id, old_price, new_price) "
+                + "SELECT ?, t.id, t.price, t.new_price FROM ("
+                + "SELECT p.id, p.price, " + PERCENT_PRICE_EXPRESSION + " AS new_price FROM products p "
+                + "WHERE p.id BETWEEN ? AND ?" + filter + ") t "
+                + "WHERE t.new_price > 0 AND t.new_price <> t.price";
+        double factor = 1 + request.getPercent() / 100.0;
+
+        String description = request.getDescription() != null ? request.getDescription()
+                : String.format("%+.2f%%%s%s", request.getPercent(),
+                        request.getCategory() != null ? " category=" + request.getCategory() : "",
+                        request.getBrand() != null ? " brand=" + request.getBrand() : "");
+
+        return runBatch(PriceChangeBatch.RuleType.PERCENT, description, batchId -> {
+            Map<String, Object> bounds = jdbcTemplate.queryForMap("SELECT MIN(id) AS min_id, MAX(id) AS max_id FROM products");
+            if (bounds.get("min_id") == null) {
+                return;
+            }
+            long minId = ((Number) bounds.get("min_id")).longValue();
+            long maxId = ((Number) bounds.get("max_id")).longValue();
+
+            // Walk the primary key in fixed ranges so each transaction and its locks stay small
+            for (long from = minId; from <= maxId; from += chunkSize) {
+                long to = Math.min(from + chunkSize - 1, maxId);
+                List<Object> args = new ArrayList<>(List.of(batchId, factor, from, to));
+                args.addAll(filterArgs);
+                long chunkFrom = from;
+                transactionTemplate.executeWithoutResult(status -> {
+                    int logged = jdbcTemplate.update(logSql, args.toArray());
+                    if (logged > 0) {
+                        applyLoggedPrices(batchId, chunkFrom, to);
+                    }
+                });
+            }
+        });
+    }
+
+    // Accepts "productId,price" lines (an optional header row is skipped); the whole list is validated before anything is applied
+    public PriceChangeBatchResponse applyPriceList(InputStream input, String description) {
+        PriceList priceList = parsePriceList(input);
+        if (priceList.size == 0) {
+            throw new ValidationException("Price list is empty");
+        }
+
+        String logSql = "INSERT INTO price_changes (batch_id, product_id, old_price, new_price) "
+                + "SELECT ?, p.id, p.price, ? FROM products p WHERE p.id = ? AND p.price <> ?";
+        String updateSql = "UPDATE products SET price = ?, version = version + 1, updated_at = ? "
+                + "WHERE id = ? AND price <> ?";
+
+        return runBatch(PriceChangeBatch.RuleType.PRICE_LIST, description, batchId -> {
+            for (int from = 0; from < priceList.size; from += chunkSize) {
+                int to = Math.min(from + chunkSize, priceList.size);
+                List<Object[]> logArgs = new ArrayList<>(to - from);
+                List<Object[]> updateArgs = new ArrayList<>(to - from);
+                Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+                for (int i = from; i < to; i++) {
+                    long productId = priceList.productIds[i];
+                    double price = priceList.prices[i];
+                    logArgs.add(new Object[]{batchId, price, productId, price});
+                    updateArgs.add(new Object[]{price, now, productId, price});
+                }
+                transactionTemplate.executeWithoutResult(status -> {
+                    jdbcTemplate.batchUpdate(logSql, logArgs);
+                    jdbcTemplate.batchUpdate(updateSql, updateArgs);
+                });
+            }
+        });
+    }
+
+    public List<PriceChangeBatchResponse> getRecentBatches() {
+        return priceChangeBatchRepository.findTop50ByOrderByIdDesc().stream()
+                .map(this::convertToResponse)
+                .toList();
+    }
+
+    public PriceChangeBatchResponse getBatch(Long id) {
+        return priceChangeBatchRepository.findById(id)
+                .map(this::convertToResponse)
+                .orElseThrow(() -> new ResourceNotFoundException("Price change batch", "id", id));
+    }
+
+    public List<PriceChangeResponse> getChanges(Long batchId, Long afterProductId, Integer size) {
+        int pageSize = size == null ? 100 : size;
+        if (pageSize < 1 || pageSize > MAX_CHANGES_PAGE_SIZE) {
+            throw new ValidationException("Page size must be between 1 and " + MAX_CHANGES_PAGE_SIZE);
+        }
+        if (!priceChangeBatchRepository.existsById(batchId)) {
+            throw new ResourceNotFoundException("Price change batch", "id", batchId);
+        }
+        return priceChangeRepository.findPage(batchId, afterProductId == null ? 0L : afterProductId, PageRequest.of(0, pageSize))
+                .stream()
+                .map(change -> new PriceChangeResponse(change.getProductId(), change.getOldPrice(), change.getNewPrice()))
+                .toList();
+    }
+
+    private void applyLoggedPrices(long batchId, long fromId, long toId) {
+        jdbcTemplate.update("UPDATE products SET "
+                        + "price = (SELECT pc.new_price FROM price_changes pc WHERE pc.batch_id = ? AND pc.product_id = products.id), "
+                        + "version = version + 1, updated_at = ? "
+                        + "WHERE id IN (SELECT pc.product_id FROM price_changes pc "
+                        + "WHERE pc.batch_id = ? AND pc.product_id BETWEEN ? AND ?)",
+                batchId, Timestamp.valueOf(LocalDateTime.now()), batchId, fromId, toId);
+    }
+
+    private PriceChangeBatchResponse runBatch(PriceChangeBatch.RuleType ruleType, String description, BatchWork work) {
+        PriceChangeBatch batch = priceChangeBatchRepository.save(new PriceChangeBatch(ruleType, description));
+        long start = System.currentTimeMillis();
+        try {
+            work.run(batch.getId());
+            batch.setStatus(PriceChangeBatch.Status.COMPLETED);
+        } catch (RuntimeException e) {
+            // Chunks committed before the failure stay applied and remain visible in the change log
+            batch.setStatus(PriceChangeBatch.Status.FAILED);
+            throw e;
+        } finally {
+            batch.setAffectedProducts(countChanges(batch.getId()));
+            batch.setCompletedAt(LocalDateTime.now());
+            priceChangeBatchRepository.save(batch);
+            if (batch.getAffectedProducts() > 0) {
+                eventPublisher.publishEvent(new CatalogChangedEvent(
+                        "Price change batch " + batch.getId(), batch.getAffectedProducts()));
+            }
+            logger.info("Price change batch {} {}: {} products in {} ms", batch.getId(), batch.getStatus(),
+                    batch.getAffectedProducts(), System.currentTimeMillis() - start);
+        }
+        return convertToResponse(batch);
+    }
+
+    private long countChanges(Long batchId) {
+        Long count = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM price_changes WHERE batch_id = ?", Long.class, batchId);
+        return count == null ? 0 : count;
+    }
+
+    private PriceList parsePriceList(InputStream input) {
+        PriceList priceList = new PriceList();
+        List<String> errors = new ArrayList<>();
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(input, StandardCharsets.UTF_8))) {
+            long lineNumber = 0;
+            String line;
+            while ((line = reader.readLine()) != null) {
+                lineNumber++;
+                if (line.isBlank()) {
+                    continue;
+                }
+                String[] fields = line.split(",");
+                if (lineNumber == 1 && !fields[0].trim().isEmpty() && !Character.isDigit(fields[0].trim().charAt(0))) {
+                    continue;
+                }
+                try {
+                    if (fields.length != 2) {
+                        throw new NumberFormatException("expected productId,price");
+                    }
+                    long productId = Long.parseLong(fields[0].trim());
+                    double price = Double.parseDouble(fields[1].trim());
+                    if (!(price > 0) || Double.isInfinite(price)) {
+                        throw new NumberFormatException("price must be positive");
+                    }
+                    priceList.add(productId, price);
+                } catch (NumberFormatException e) {
+                    if (errors.size() < MAX_REPORTED_ERRORS) {
+                        errors.add("line " + lineNumber + ": " + e.getMessage());
+                    }
+                }
+            }
+        } catch (IOException e) {
+            throw new ValidationException("Failed to read price list: " + e.getMessage(), e);
+        }
+        if (!errors.isEmpty()) {
+            throw new ValidationException("Invalid price list: " + String.join("; ", errors));
+        }
+
+        // Each product may appear once, otherwise the log and the applied price could disagree
+        long[] sortedIds = Arrays.copyOf(priceList.productIds, priceList.size);
+        Arrays.sort(sortedIds);
+        for (int i = 1; i < sortedIds.length; i++) {
+            if (sortedIds[i] == sortedIds[i - 1]) {
+                throw new ValidationException("Invalid price list: product " + sortedIds[i] + " is listed more than once");
+            }
+        }
+        return priceList;
+    }
+
+    private PriceChangeBatchResponse convertToResponse(PriceChangeBatch batch) {
+        return new PriceChangeBatchResponse(
+                batch.getId(),
+                batch.getRuleType().name(),
+                batch.getDescription(),
+                batch.getStatus().name(),
+                batch.getAffectedProducts(),
+                batch.getCreatedAt(),
+                batch.getCompletedAt()
+        );
+    }
+
+    private interface BatchWork {
+        void run(long batchId);
+    }
+
+    // Primitive columns keep a million-row upload at a few megabytes
+    private static class PriceList {
+        private long[] productIds = new long[1024];
+        private double[] prices = new double[1024];
+        private int size;
+
+        void add(long productId, double price) {
+            if (size == productIds.length) {
+                productIds = Arrays.copyOf(productIds, size * 2);
+                prices = Arrays.copyOf(prices, size * 2);
+            }
+            productIds[size] = productId;
+            prices[size] = price;
+            size++;
+        }
+    }
+}
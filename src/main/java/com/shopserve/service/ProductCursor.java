@@ -0,0 +1,89 @@
+package com.shopserve.service;
+
+import com.shopserve.exception.ValidationException;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.Locale;
+
+/**
+ * Opaque continuation token for keyset pagination over products.
+ * Encodes the sort field together with the sort key and id of the last row of a page.
+ */
+class ProductCursor {
+
+    enum SortField {
+        ID, PRICE, NAME;
+
+        static SortField from(String value) {
+            if (value == null || value.isBlank()) {
+                return ID;
+            }
+            try {
+                return SortField.valueOf(value.trim().toUpperCase(Locale.ROOT));
+            } catch (IllegalArgumentException e) {
+                throw new ValidationException("Unsupported sort field '" + value + "'. Use id, price or name");
+            }
+        }
+    }
+
+    private final SortField sortField;
+    private final Long lastId;
+    private final String lastValue;
+
+    ProductCursor(SortField sortField, Long lastId, String lastValue) {
+        this.sortField = sortField;
+        this.lastId = lastId;
+        this.lastValue = lastValue;
+    }
+
+    // Cursor positioned before the first row of the given sort order
+    static ProductCursor first(SortField sortField) {
+        return new ProductCursor(sortField, 0L, null);
+    }
+
+    // Any token not produced by encode() is a client error, never a server error
+    static ProductCursor decode(String token) {
+        if (token == null) {
+            throw new ValidationException("Invalid pagination cursor");
+        }
+        try {
+            String decoded = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            String[] parts = decoded.split(":", 3);
+            if (parts.length != 3) {
+                throw new IllegalArgumentException("Malformed cursor");
+            }
+            SortField sortField = SortField.valueOf(parts[0]);
+            Long lastId = Long.parseLong(parts[1]);
+            if (sortField == SortField.PRICE && !Double.isFinite(Double.parseDouble(parts[2]))) {
+                throw new IllegalArgumentException("Malformed cursor price");
+            }
+            return new ProductCursor(sortField, lastId, parts[2]);
+        } catch (IllegalArgumentException e) {
+            throw new ValidationException("Invalid pagination cursor");
+        }
+    }
+
+    String encode() {
+        String raw = sortField.name() + ":" + lastId + ":" + (lastValue == null ? "" : lastValue);
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    SortField getSortField() {
+        return sortField;
+    }
+
+    Long getLastId() {
+        return lastId;
+    }
+
+    // Prices are positive, so 0 sorts before every row on the first page
+    Double getLastPrice() {
+        return lastValue == null ? 0.0 : Double.valueOf(lastValue);
+    }
+
+    // Names are never blank, so the empty string sorts before every row on the first page
+    String getLastName() {
+        return lastValue == null ? "" : lastValue;
+    }
+}
@@ -0,0 +1,287 @@
+package com.shopserve.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.shopserve.dto.ProductImportResult;
+import com.shopserve.entity.Category;
+import com.shopserve.entity.Product;
+import com.shopserve.event.CatalogChangedEvent;
+import com.shopserve.exception.ValidationException;
+import com.shopserve.repository.CategoryRepository;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.core.NestedExceptionUtils;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+@Service
+public class ProductImportService {
+
+    public enum ImportFormat {
+        CSV, NDJSON
+    }
+
+    @Autowired
+    private CategoryRepository categoryRepository;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private Validator validator;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    private final TransactionTemplate transactionTemplate;
+
+    @Value("${shopserve.import.batch-size:500}")
+    private int batchSize;
+
+    public ProductImportService(PlatformTransactionManager transactionManager) {
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    public static ImportFormat formatOf(String contentType) {
+        if (contentType != null) {
+            String type = contentType.toLowerCase(Locale.ROOT);
+            if (type.startsWith("text/csv")) {
+                return ImportFormat.CSV;
+            }
+            if (type.startsWith("application/x-ndjson")) {
+                return ImportFormat.NDJSON;
+            }
+        }
+        throw new ValidationException("Unsupported import content type '" + contentType + "'. Use text/csv or application/x-ndjson");
+    }
+
+    // Rows are validated one by one and inserted in JDBC batches; a bad row is reported and skipped, never aborting the import
+    public ProductImportResult importProducts(InputStream input, ImportFormat format) {
+        Map<String, Category> categories = categoryRepository.findAll().stream()
+                .collect(Collectors.toMap(Category::getName, category -> category));
+
+        ProductImportResult result = new ProductImportResult();
+        List<ImportRow> batch = new ArrayList<>(batchSize);
+
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(input, StandardCharsets.UTF_8))) {
+            List<String> header = null;
+            long lineNumber = 0;
+            String line;
+            while ((line = reader.readLine()) != null) {
+                lineNumber++;
+                if (line.isBlank()) {
+                    continue;
+                }
+                if (format == ImportFormat.CSV && header == null) {
+                    header = parseCsvLine(line).stream()
+                            .map(column -> column.trim().toLowerCase(Locale.ROOT))
+                            .collect(Collectors.toList());
+                    continue;
+                }
+
+                result.incrementTotalRows();
+                try {
+                    Map<String, String> fields = format == ImportFormat.CSV
+                            ? toFields(header, parseCsvLine(line))
+                            : parseJsonLine(line);
+                    batch.add(toImportRow(lineNumber, fields, categories));
+                } catch (ValidationException e) {
+                    result.addError(lineNumber, e.getMessage());
+                }
+
+                if (batch.size() == batchSize) {
+                    persistBatch(batch, result);
+                    batch.clear();
+                }
+            }
+            persistBatch(batch, result);
+        } catch (IOException e) {
+            throw new ValidationException("Failed to read import data: " + e.getMessage(), e);
+        } finally {
+            // One bulk event per import, also when it aborts after some batches were committed:
+            // listeners reload once instead of once per batch or per row
+            if (result.getImported() > 0) {
+                eventPublisher.publishEvent(new CatalogChangedEvent(
+                        "Imported " + result.getImported() + " products", result.getImported()));
+            }
+        }
+        return result;
+    }
+
+    private void persistBatch(List<ImportRow> batch, ProductImportResult result) {
+        if (batch.isEmpty()) {
+            return;
+        }
+
+        long imported = 0;
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                for (ImportRow row : batch) {
+                    entityManager.persist(row.toProduct(entityManager));
+                }
+                entityManager.flush();
+                entityManager.clear();
+            });
+            imported = batch.size();
+        } catch (RuntimeException e) {
+            // The batch was rolled back; replay it row by row to isolate the rows the database rejected
+            for (ImportRow row : batch) {
+                try {
+                    transactionTemplate.executeWithoutResult(status -> {
+                        entityManager.persist(row.toProduct(entityManager));
+                        entityManager.flush();
+                        entityManager.clear();
+                    });
+                    imported++;
+                } catch (RuntimeException rowError) {
+                    result.addError(row.lineNumber, NestedExceptionUtils.getMostSpecificCause(rowError).getMessage());
+                }
+            }
+        }
+
+        result.addImported(imported);
+    }
+
+    private ImportRow toImportRow(long lineNumber, Map<String, String> fields, Map<String, Category> categories) {
+        String categoryName = fields.get("category");
+        if (categoryName == null || categoryName.isBlank()) {
+            throw new ValidationException("Category is required");
+        }
+        Category category = categories.get(categoryName.trim());
+        if (category == null) {
+            throw new ValidationException("Unknown category '" + categoryName.trim() + "'");
+        }
+
+        Double price;
+        try {
+            String rawPrice = fields.get("price");
+            price = rawPrice == null || rawPrice.isBlank() ? null : Double.valueOf(rawPrice.trim());
+        } catch (NumberFormatException e) {
+            throw new ValidationException("Invalid price '" + fields.get("price") + "'");
+        }
+        // Double.valueOf accepts "Infinity" and "NaN", which @Positive does not fully reject
+        if (price != null && !Double.isFinite(price)) {
+            throw new ValidationException("Price must be a finite number");
+        }
+
+        ImportRow row = new ImportRow(lineNumber, fields.get("name"), fields.get("brand"), price,
+                fields.get("description"), category);
+        Set<ConstraintViolation<Product>> violations = validator.validate(row.toDetachedProduct());
+        if (!violations.isEmpty()) {
+            throw new ValidationException(violations.stream()
+                    .map(ConstraintViolation::getMessage)
+                    .sorted()
+                    .collect(Collectors.joining("; ")));
+        }
+        return row;
+    }
+
+    private Map<String, String> parseJsonLine(String line) {
+        try {
+            Map<String, Object> values = objectMapper.readValue(line, new TypeReference<Map<String, Object>>() {});
+            Map<String, String> fields = new HashMap<>();
+            values.forEach((key, value) -> {
+                if (value != null) {
+                    fields.put(key.toLowerCase(Locale.ROOT), value.toString());
+                }
+            });
+            return fields;
+        } catch (JsonProcessingException e) {
+            throw new ValidationException("Malformed JSON: " + e.getOriginalMessage());
+        }
+    }
+
+    private static Map<String, String> toFields(List<String> header, List<String> values) {
+        if (values.size() != header.size()) {
+            throw new ValidationException("Expected " + header.size() + " columns but found " + values.size());
+        }
+        Map<String, String> fields = new HashMap<>();
+        for (int i = 0; i < header.size(); i++) {
+            fields.put(header.get(i), values.get(i));
+        }
+        return fields;
+    }
+
+    // Splits one CSV record, honouring double-quoted fields with "" escapes (records may not span lines)
+    static List<String> parseCsvLine(String line) {
+        List<String> values = new ArrayList<>();
+        StringBuilder current = new StringBuilder();
+        boolean quoted = false;
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (quoted) {
+                if (c == '"' && i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                    current.append('"');
+                    i++;
+                } else if (c == '"') {
+                    quoted = false;
+                } else {
+                    current.append(c);
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                values.add(current.toString());
+                current.setLength(0);
+            } else {
+                current.append(c);
+            }
+        }
+        if (quoted) {
+            throw new ValidationException("Unterminated quoted field");
+        }
+        values.add(current.toString());
+        return values;
+    }
+
+    private static class ImportRow {
+        private final long lineNumber;
+        private final String name;
+        private final String brand;
+        private final Double price;
+        private final String description;
+        private final Category category;
+
+        ImportRow(long lineNumber, String name, String brand, Double price, String description, Category category) {
+            this.lineNumber = lineNumber;
+            this.name = name == null ? null : name.trim();
+            this.brand = brand == null ? null : brand.trim();
+            this.price = price;
+            this.description = description == null || description.isBlank() ? null : description.trim();
+            this.category = category;
+        }
+
+        Product toDetachedProduct() {
+            return new Product(name, brand, price, description, category);
+        }
+
+        // References the preloaded category by id so no SELECT is issued per row
+        Product toProduct(EntityManager entityManager) {
+            Category reference = entityManager.getReference(Category.class, category.getId());
+            return new Product(name, brand, price, description, reference);
+        }
+    }
+}
@@ -0,0 +1,220 @@
+package com.shopserve.service;
+
+import com.shopserve.dto.ProductResponse;
+import com.shopserve.event.CatalogChangedEvent;
+import com.shopserve.event.CategoryChangedEvent;
+import com.shopserve.event.ProductChangedEvent;
+import com.shopserve.event.ProductIndexesReloadedEvent;
+import com.shopserve.index.FacetCounts;
+import com.shopserve.index.ProductFilterIndex;
+import com.shopserve.index.ProductSearchIndex;
+import com.shopserve.repository.ProductRepository;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+@Service
+public class ProductIndexService {
+
+    private static final Logger logger = LoggerFactory.getLogger(ProductIndexService.class);
+
+    private static final int LOAD_PAGE_SIZE = 5000;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Value("${shopserve.index.filter.enabled:false}")
+    private boolean filterIndexEnabled;
+
+    @Value("${shopserve.index.search.enabled:true}")
+    private boolean searchIndexEnabled;
+
+    // Live indexes; a reload builds replacements off to the side and swaps them in when complete
+    private volatile ProductFilterIndex filterIndex = new ProductFilterIndex();
+    private volatile ProductSearchIndex searchIndex = new ProductSearchIndex();
+
+    // Products written while a load is running; the load must not overwrite them with stale rows
+    private final Object loadLock = new Object();
+    private final Set<Long> changedWhileLoading = new HashSet<>();
+    private ProductFilterIndex loadingFilterIndex;
+    private ProductSearchIndex loadingSearchIndex;
+
+    private final Object reloadMutex = new Object();
+
+    // At most one reload runs and one waits; further requests are covered by the waiting one
+    private final ThreadPoolExecutor reloadExecutor = new ThreadPoolExecutor(1, 1, 0, TimeUnit.MILLISECONDS,
+            new ArrayBlockingQueue<>(1),
+            runnable -> {
+                Thread thread = new Thread(runnable, "product-index-reload");
+                thread.setDaemon(true);
+                return thread;
+            },
+            new ThreadPoolExecutor.DiscardPolicy());
+
+    private volatile boolean filterIndexReady;
+    private volatile boolean searchIndexReady;
+
+    // Bumped per bulk change; a load only marks the filter index ready if no bulk change arrived after it started
+    private final AtomicLong catalogChanges = new AtomicLong();
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void loadIndexes() {
+        if (!filterIndexEnabled && !searchIndexEnabled) {
+            return;
+        }
+        synchronized (reloadMutex) {
+            load();
+        }
+    }
+
+    // Bulk updates bypass per-product events, so the indexes are rebuilt from the database in the background.
+    // Filters and facets fall back to SQL until the rebuilt index is swapped in, rather than answer from stale rows.
+    // Search keeps answering: bulk updates never touch the indexed text and hits are hydrated from the database.
+    @EventListener
+    @Order(Ordered.HIGHEST_PRECEDENCE)
+    public void onCatalogChanged(CatalogChangedEvent event) {
+        if (filterIndexEnabled || searchIndexEnabled) {
+            catalogChanges.incrementAndGet();
+            filterIndexReady = false;
+            reloadExecutor.execute(this::loadIndexes);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        reloadExecutor.shutdownNow();
+    }
+
+    private void load() {
+        long start = System.currentTimeMillis();
+        long changesAtStart = catalogChanges.get();
+        ProductFilterIndex newFilterIndex = new ProductFilterIndex();
+        ProductSearchIndex newSearchIndex = new ProductSearchIndex();
+        synchronized (loadLock) {
+            loadingFilterIndex = newFilterIndex;
+            loadingSearchIndex = newSearchIndex;
+        }
+
+        // Page through the catalog in price order so every row is appended at the end of the sorted price column
+        Double lastPrice = 0.0;
+        Long lastId = 0L;
+        List<ProductResponse> page;
+        do {
+            page = productRepository.findPageOrderByPrice(lastPrice, lastId, PageRequest.of(0, LOAD_PAGE_SIZE));
+            synchronized (loadLock) {
+                for (ProductResponse product : page) {
+                    if (!changedWhileLoading.contains(product.getId())) {
+                        index(newFilterIndex, newSearchIndex, product);
+                    }
+                }
+            }
+            if (!page.isEmpty()) {
+                ProductResponse last = page.get(page.size() - 1);
+                lastPrice = last.getPrice();
+                lastId = last.getId();
+            }
+        } while (page.size() == LOAD_PAGE_SIZE);
+
+        synchronized (loadLock) {
+            filterIndex = newFilterIndex;
+            searchIndex = newSearchIndex;
+            loadingFilterIndex = null;
+            loadingSearchIndex = null;
+            changedWhileLoading.clear();
+            filterIndexReady = filterIndexEnabled && catalogChanges.get() == changesAtStart;
+        }
+        searchIndexReady = searchIndexEnabled;
+        eventPublisher.publishEvent(new ProductIndexesReloadedEvent(newFilterIndex.size(), newSearchIndex.size()));
+        logger.info("Product indexes loaded in {} ms (filter: {} products, search: {} products)",
+                System.currentTimeMillis() - start, newFilterIndex.size(), newSearchIndex.size());
+    }
+
+    public boolean isFilterIndexReady() {
+        return filterIndexReady;
+    }
+
+    public List<Long> filterProductIds(String category, String brand, Double minPrice, Double maxPrice) {
+        return filterIndex.filter(category, brand, minPrice, maxPrice);
+    }
+
+    public FacetCounts facets(String category, String brand, Double minPrice, Double maxPrice, double bucketWidth) {
+        return filterIndex.facets(category, brand, minPrice, maxPrice, bucketWidth);
+    }
+
+    public boolean isSearchIndexReady() {
+        return searchIndexReady;
+    }
+
+    public List<ProductSearchIndex.SearchHit> search(String query, int limit) {
+        return searchIndex.search(query, limit);
+    }
+
+    @EventListener
+    public void onProductChanged(ProductChangedEvent event) {
+        if (!filterIndexEnabled && !searchIndexEnabled) {
+            return;
+        }
+
+        synchronized (loadLock) {
+            apply(filterIndex, searchIndex, event);
+            if (loadingFilterIndex != null) {
+                changedWhileLoading.add(event.getProductId());
+                apply(loadingFilterIndex, loadingSearchIndex, event);
+            }
+        }
+    }
+
+    @EventListener
+    public void onCategoryChanged(CategoryChangedEvent event) {
+        if (filterIndexEnabled && event.isRenamed()) {
+            synchronized (loadLock) {
+                filterIndex.renameCategory(event.getPrevious().getName(), event.getCurrent().getName());
+                if (loadingFilterIndex != null) {
+                    loadingFilterIndex.renameCategory(event.getPrevious().getName(), event.getCurrent().getName());
+                }
+            }
+        }
+    }
+
+    private void apply(ProductFilterIndex filters, ProductSearchIndex search, ProductChangedEvent event) {
+        if (event.getCurrent() == null) {
+            if (filterIndexEnabled) {
+                filters.remove(event.getProductId());
+            }
+            if (searchIndexEnabled) {
+                search.remove(event.getProductId());
+            }
+        } else {
+            index(filters, search, event.getCurrent());
+        }
+    }
+
+    private void index(ProductFilterIndex filters, ProductSearchIndex search, ProductResponse product) {
+        if (filterIndexEnabled) {
+            filters.put(product.getId(), product.getCategoryName(), product.getBrand(), product.getPrice());
+        }
+        if (searchIndexEnabled) {
+            search.put(product.getId(), product.getName(), product.getBrand(), product.getDescription());
+        }
+    }
+}
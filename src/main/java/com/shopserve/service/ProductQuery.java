@@ -0,0 +1,120 @@
+package com.shopserve.service;
+
+import com.shopserve.dto.ProductResponse;
+
+import java.util.Objects;
+
+/**
+ * Normalized arguments of a product list query, used as the key for sharing and caching query results.
+ * Queries of different types are never equal, because their results are not interchangeable.
+ * {@link #matches} evaluates the query's predicate in memory, so a write can find the cached
+ * results it affects.
+ */
+public final class ProductQuery {
+
+    public enum Type {
+        FILTER, CATEGORY, BRAND, PRICE_RANGE
+    }
+
+    private final Type type;
+    private final String category;
+    private final String brand;
+    private final Double minPrice;
+    private final Double maxPrice;
+
+    private ProductQuery(Type type, String category, String brand, Double minPrice, Double maxPrice) {
+        this.type = type;
+        this.category = category;
+        this.brand = brand;
+        this.minPrice = normalize(minPrice);
+        this.maxPrice = normalize(maxPrice);
+    }
+
+    public static ProductQuery filter(String category, String brand, Double minPrice, Double maxPrice) {
+        return new ProductQuery(Type.FILTER, category, brand, minPrice, maxPrice);
+    }
+
+    public static ProductQuery category(String category) {
+        return new ProductQuery(Type.CATEGORY, category, null, null, null);
+    }
+
+    public static ProductQuery brand(String brand) {
+        return new ProductQuery(Type.BRAND, null, brand, null, null);
+    }
+
+    public static ProductQuery priceRange(Double minPrice, Double maxPrice) {
+        return new ProductQuery(Type.PRICE_RANGE, null, null, minPrice, maxPrice);
+    }
+
+    public Type getType() {
+        return type;
+    }
+
+    public String getCategory() {
+        return category;
+    }
+
+    public String getBrand() {
+        return brand;
+    }
+
+    public Double getMinPrice() {
+        return minPrice;
+    }
+
+    public Double getMaxPrice() {
+        return maxPrice;
+    }
+
+    // Mirrors the WHERE clause of the corresponding repository query
+    public boolean matches(ProductResponse product) {
+        if (product == null) {
+            return false;
+        }
+        return switch (type) {
+            case FILTER -> (category == null || category.equals(product.getCategoryName()))
+                    && (brand == null || brand.equals(product.getBrand()))
+                    && (minPrice == null || product.getPrice() >= minPrice)
+                    && (maxPrice == null || product.getPrice() <= maxPrice);
+            case CATEGORY -> category != null && category.equals(product.getCategoryName());
+            case BRAND -> brand != null && brand.equals(product.getBrand());
+            // BETWEEN with a missing bound is unknown for every row, so it matches nothing
+            case PRICE_RANGE -> minPrice != null && maxPrice != null
+                    && product.getPrice() >= minPrice && product.getPrice() <= maxPrice;
+        };
+    }
+
+    public boolean filtersOnCategory(String categoryName) {
+        return category != null && category.equals(categoryName);
+    }
+
+    // -0.0 and 0.0 select the same rows but are not equal as Double
+    private static Double normalize(Double price) {
+        return price != null && price == 0.0 ? 0.0 : price;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof ProductQuery other)) {
+            return false;
+        }
+        return type == other.type
+                && Objects.equals(category, other.category)
+                && Objects.equals(brand, other.brand)
+                && Objects.equals(minPrice, other.minPrice)
+                && Objects.equals(maxPrice, other.maxPrice);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(type, category, brand, minPrice, maxPrice);
+    }
+
+    @Override
+    public String toString() {
+        return type + "{category=" + category + ", brand=" + brand + ", minPrice=" + minPrice + ", maxPrice=" + maxPrice + "}";
+    }
+}
@@ -1,23 +1,40 @@
 package com.shopserve.service;
 
+import com.shopserve.cache.LruCache;
+import com.shopserve.cache.SingleFlight;
+import com.shopserve.dto.EntityVersion;
+import com.shopserve.dto.ProductBatchResponse;
+import com.shopserve.dto.ProductFacetsResponse;
+import com.shopserve.dto.ProductPageResponse;
 import com.shopserve.dto.ProductRequest;
 import com.shopserve.dto.ProductResponse;
 import com.shopserve.entity.Category;
+import com.shopserve.entity.ImageStatus;
 import com.shopserve.entity.Product;
+import com.shopserve.event.ProductChangedEvent;
+import com.shopserve.index.FacetCounts;
+import com.shopserve.index.ProductSearchIndex;
 import com.shopserve.exception.ResourceNotFoundException;
+import com.shopserve.exception.ServiceUnavailableException;
 import com.shopserve.exception.ValidationException;
 import com.shopserve.repository.ProductRepository;
+import io.micrometer.core.annotation.Timed;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
 import org.springframework.web.multipart.MultipartFile;
 
-import java.io.IOException;
-import java.nio.file.Files;
-import java.nio.file.Path;
-import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
 import java.util.List;
-import java.util.UUID;
-import java.util.stream.Collectors;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Supplier;
 
 @Service
 public class ProductService {
@@ -28,21 +45,140 @@ public class ProductService {
     @Autowired
     private CategoryService categoryService;
 
-    private static final String UPLOAD_DIR = "uploads/";
+    @Autowired
+    private ProductIndexService productIndexService;
+
+    @Autowired
+    private LruCache<Long, ProductResponse> productCache;
+
+    // Concurrent identical list queries share one database execution
+    @Autowired
+    private SingleFlight<ProductQuery, List<ProductResponse>> productQueryFlight;
+
+    // Ids of recent list query results, hydrated through the product cache
+    @Autowired
+    private LruCache<ProductQuery, List<Long>> productQueryCache;
+
+    @Value("${shopserve.cache.query.max-result-size:1000}")
+    private int maxCachedResultSize;
+
+    @Autowired
+    private ImageIngestionService imageIngestionService;
 
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    public static final int DEFAULT_PAGE_SIZE = 20;
+    public static final int MAX_PAGE_SIZE = 100;
+
+    private static final int ID_LOOKUP_CHUNK_SIZE = 1000;
+
+    public static final double DEFAULT_FACET_BUCKET_WIDTH = 100.0;
+    private static final double MIN_FACET_BUCKET_WIDTH = 1.0;
+    private static final double MAX_FACET_BUCKET_WIDTH = 1_000_000_000.0;
+
+    public static final int MAX_BATCH_SIZE = 500;
+
+    public static final int DEFAULT_SEARCH_LIMIT = 20;
+    public static final int MAX_SEARCH_LIMIT = 100;
+
+    @Timed("shopserve.product.service")
     public List<ProductResponse> getAllProducts() {
-        return productRepository.findAll().stream()
-                .map(this::convertToResponse)
-                .collect(Collectors.toList());
+        return productRepository.findAllResponses();
     }
 
+    @Timed("shopserve.product.service")
+    public ProductPageResponse getProductPage(String cursor, Integer size, String sort) {
+        int pageSize = size == null ? DEFAULT_PAGE_SIZE : size;
+        if (pageSize < 1 || pageSize > MAX_PAGE_SIZE) {
+            throw new ValidationException("Page size must be between 1 and " + MAX_PAGE_SIZE);
+        }
+
+        ProductCursor position;
+        if (cursor == null || cursor.isBlank()) {
+            position = ProductCursor.first(ProductCursor.SortField.from(sort));
+        } else {
+            position = ProductCursor.decode(cursor);
+            if (sort != null && !sort.isBlank() && ProductCursor.SortField.from(sort) != position.getSortField()) {
+                throw new ValidationException("Sort field cannot change while paging with a cursor");
+            }
+        }
+
+        // Fetch one extra row to find out whether another page follows
+        PageRequest limit = PageRequest.of(0, pageSize + 1);
+        List<ProductResponse> products = switch (position.getSortField()) {
+            case PRICE -> productRepository.findPageOrderByPrice(position.getLastPrice(), position.getLastId(), limit);
+            case NAME -> productRepository.findPageOrderByName(position.getLastName(), position.getLastId(), limit);
+            default -> productRepository.findPageOrderById(position.getLastId(), limit);
+        };
+
+        boolean hasNext = products.size() > pageSize;
+        if (hasNext) {
+            products = products.subList(0, pageSize);
+        }
+
+        String nextCursor = null;
+        if (hasNext) {
+            ProductResponse last = products.get(products.size() - 1);
+            String lastValue = switch (position.getSortField()) {
+                case PRICE -> String.valueOf(last.getPrice());
+                case NAME -> last.getName();
+                default -> null;
+            };
+            nextCursor = new ProductCursor(position.getSortField(), last.getId(), lastValue).encode();
+        }
+
+        return new ProductPageResponse(products, hasNext, nextCursor);
+    }
+
+    @Timed("shopserve.product.service")
     public ProductResponse getProductById(Long id) {
-        Product product = productRepository.findById(id)
+        return productCache.get(id, key -> productRepository.findResponseById(key)
+                .orElseThrow(() -> new ResourceNotFoundException("Product", "id", key)));
+    }
+
+    // Cached products are served as is; the rest are loaded with a single IN query joined to their category
+    @Timed("shopserve.product.service")
+    public ProductBatchResponse getProductsByIds(List<Long> ids) {
+        if (ids == null || ids.isEmpty()) {
+            throw new ValidationException("At least one product id is required");
+        }
+        if (ids.size() > MAX_BATCH_SIZE) {
+            throw new ValidationException("At most " + MAX_BATCH_SIZE + " product ids can be requested at once");
+        }
+        if (ids.contains(null)) {
+            throw new ValidationException("Product ids must not be empty");
+        }
+
+        Map<Long, ProductResponse> products = getResponsesById(ids);
+
+        List<ProductBatchResponse.Item> items = new ArrayList<>(ids.size());
+        for (Long id : ids) {
+            items.add(new ProductBatchResponse.Item(id, products.get(id)));
+        }
+        return new ProductBatchResponse(items);
+    }
+
+    // Skips a cached copy older than a version the caller has already seen, e.g. one used as an ETag
+    @Timed("shopserve.product.service")
+    public ProductResponse getProductById(Long id, long minimumVersion) {
+        ProductResponse product = getProductById(id);
+        if (product.getVersion() != null && product.getVersion() < minimumVersion) {
+            productCache.invalidate(id);
+            product = getProductById(id);
+        }
+        return product;
+    }
+
+    @Timed("shopserve.product.service")
+    public EntityVersion getProductVersion(Long id) {
+        return productRepository.findVersionById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Product", "id", id));
-        return convertToResponse(product);
     }
 
+    @Timed("shopserve.product.service")
     public ProductResponse createProduct(ProductRequest request) {
+        validatePrice(request.getPrice());
         Category category = categoryService.getCategoryEntityById(request.getCategoryId());
 
         Product product = new Product();
@@ -52,20 +188,28 @@ public class ProductService {
         product.setDescription(request.getDescription());
         product.setCategory(category);
 
-        // Handle image upload
-        if (request.getImage() != null && !request.getImage().isEmpty()) {
-            String imageUrl = saveImage(request.getImage());
-            product.setImageUrl(imageUrl);
+        // Stage the upload now; it is processed after the product is saved
+        ImageIngestionService.StagedImage stagedImage = stageImage(request.getImage());
+        if (stagedImage != null) {
+            product.setImageStatus(ImageStatus.PENDING);
         }
 
-        Product savedProduct = productRepository.save(product);
-        return convertToResponse(savedProduct);
+        Product savedProduct = saveWithStagedImage(product, stagedImage);
+        ProductResponse response = convertToResponse(savedProduct);
+        eventPublisher.publishEvent(ProductChangedEvent.created(response));
+        if (stagedImage != null) {
+            imageIngestionService.submit(savedProduct.getId(), stagedImage);
+        }
+        return response;
     }
 
+    @Timed("shopserve.product.service")
     public ProductResponse updateProduct(Long id, ProductRequest request) {
-        Product product = productRepository.findById(id)
+        validatePrice(request.getPrice());
+        Product product = productRepository.findWithCategoryById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Product", "id", id));
 
+        ProductResponse previous = convertToResponse(product);
         Category category = categoryService.getCategoryEntityById(request.getCategoryId());
 
         product.setName(request.getName());
@@ -74,84 +218,223 @@ public class ProductService {
         product.setDescription(request.getDescription());
         product.setCategory(category);
 
-        // Handle image upload
-        if (request.getImage() != null && !request.getImage().isEmpty()) {
-            String imageUrl = saveImage(request.getImage());
-            product.setImageUrl(imageUrl);
+        // The current image stays visible until the new upload has been processed
+        ImageIngestionService.StagedImage stagedImage = stageImage(request.getImage());
+        if (stagedImage != null) {
+            product.setImageStatus(ImageStatus.PENDING);
         }
 
-        Product updatedProduct = productRepository.save(product);
-        return convertToResponse(updatedProduct);
+        Product updatedProduct = saveWithStagedImage(product, stagedImage);
+        ProductResponse response = convertToResponse(updatedProduct);
+        eventPublisher.publishEvent(ProductChangedEvent.updated(previous, response));
+        if (stagedImage != null) {
+            imageIngestionService.submit(updatedProduct.getId(), stagedImage);
+        }
+        return response;
     }
 
+    @Timed("shopserve.product.service")
     public void deleteProduct(Long id) {
-        Product product = productRepository.findById(id)
+        Product product = productRepository.findWithCategoryById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Product", "id", id));
 
+        ProductResponse previous = convertToResponse(product);
         productRepository.delete(product);
+        eventPublisher.publishEvent(ProductChangedEvent.deleted(previous));
     }
 
+    @Timed("shopserve.product.service")
     public List<ProductResponse> filterProducts(String category, String brand, Double minPrice, Double maxPrice) {
-        List<Product> products = productRepository.findProductsByFilters(category, brand, minPrice, maxPrice);
-        return products.stream()
-                .map(this::convertToResponse)
-                .collect(Collectors.toList());
+        return runListQuery(ProductQuery.filter(category, brand, minPrice, maxPrice), () -> {
+            if (productIndexService.isFilterIndexReady()) {
+                List<Long> ids = productIndexService.filterProductIds(category, brand, minPrice, maxPrice);
+                return findResponsesByIds(ids);
+            }
+            return productRepository.findResponsesByFilters(category, brand, minPrice, maxPrice);
+        });
+    }
+
+    // Counts are computed by the filter index or a single GROUP BY query; product rows are never loaded
+    @Timed("shopserve.product.service")
+    public ProductFacetsResponse getProductFacets(String category, String brand, Double minPrice, Double maxPrice,
+                                                  Double bucketWidth) {
+        double width = bucketWidth == null ? DEFAULT_FACET_BUCKET_WIDTH : bucketWidth;
+        if (!Double.isFinite(width) || width < MIN_FACET_BUCKET_WIDTH || width > MAX_FACET_BUCKET_WIDTH) {
+            throw new ValidationException("Price bucket width must be between " + (long) MIN_FACET_BUCKET_WIDTH
+                    + " and " + (long) MAX_FACET_BUCKET_WIDTH);
+        }
+
+        FacetCounts counts;
+        if (productIndexService.isFilterIndexReady()) {
+            counts = productIndexService.facets(category, brand, minPrice, maxPrice, width);
+        } else {
+            counts = new FacetCounts(width);
+            for (Object[] row : productRepository.countFacets(category, brand, minPrice, maxPrice, width)) {
+                long count = ((Number) row[3]).longValue();
+                counts.addCategory((String) row[0], count);
+                counts.addBrand((String) row[1], count);
+                counts.addPriceBucket(((Number) row[2]).longValue(), count);
+            }
+        }
+
+        Comparator<ProductFacetsResponse.FacetValue> byCount =
+                Comparator.comparingLong(ProductFacetsResponse.FacetValue::getCount).reversed()
+                        .thenComparing(ProductFacetsResponse.FacetValue::getValue);
+        List<ProductFacetsResponse.FacetValue> categories = counts.getCategories().entrySet().stream()
+                .map(entry -> new ProductFacetsResponse.FacetValue(entry.getKey(), entry.getValue()))
+                .sorted(byCount)
+                .toList();
+        List<ProductFacetsResponse.FacetValue> brands = counts.getBrands().entrySet().stream()
+                .map(entry -> new ProductFacetsResponse.FacetValue(entry.getKey(), entry.getValue()))
+                .sorted(byCount)
+                .toList();
+        List<ProductFacetsResponse.PriceBucket> priceBuckets = counts.getPriceBuckets().entrySet().stream()
+                .sorted(Map.Entry.comparingByKey())
+                .map(entry -> new ProductFacetsResponse.PriceBucket(
+                        entry.getKey() * width, (entry.getKey() + 1) * width, entry.getValue()))
+                .toList();
+        return new ProductFacetsResponse(counts.getTotal(), categories, brands, priceBuckets);
+    }
+
+    @Timed("shopserve.product.service")
+    public List<ProductResponse> searchProducts(String query, Integer limit) {
+        if (query == null || query.isBlank()) {
+            throw new ValidationException("Search query is required");
+        }
+        int maxResults = limit == null ? DEFAULT_SEARCH_LIMIT : limit;
+        if (maxResults < 1 || maxResults > MAX_SEARCH_LIMIT) {
+            throw new ValidationException("Search limit must be between 1 and " + MAX_SEARCH_LIMIT);
+        }
+        if (!productIndexService.isSearchIndexReady()) {
+            throw new ServiceUnavailableException("Product search index is not available");
+        }
+
+        List<ProductSearchIndex.SearchHit> hits = productIndexService.search(query, maxResults);
+        if (hits.isEmpty()) {
+            return List.of();
+        }
+
+        // Return hydrated products in relevance order
+        List<Long> ids = hits.stream().map(ProductSearchIndex.SearchHit::getProductId).toList();
+        Map<Long, ProductResponse> productsById = new HashMap<>();
+        productRepository.findResponsesByIdIn(ids).forEach(product -> productsById.put(product.getId(), product));
+        return ids.stream()
+                .map(productsById::get)
+                .filter(Objects::nonNull)
+                .toList();
     }
 
+    @Timed("shopserve.product.service")
     public List<ProductResponse> getProductsByCategory(String categoryName) {
-        List<Product> products = productRepository.findByCategoryName(categoryName);
-        return products.stream()
-                .map(this::convertToResponse)
-                .collect(Collectors.toList());
+        return runListQuery(ProductQuery.category(categoryName),
+                () -> productRepository.findResponsesByCategoryName(categoryName));
     }
 
+    @Timed("shopserve.product.service")
     public List<ProductResponse> getProductsByBrand(String brand) {
-        List<Product> products = productRepository.findByBrand(brand);
-        return products.stream()
-                .map(this::convertToResponse)
-                .collect(Collectors.toList());
+        return runListQuery(ProductQuery.brand(brand),
+                () -> productRepository.findResponsesByBrand(brand));
     }
 
+    @Timed("shopserve.product.service")
     public List<ProductResponse> getProductsByPriceRange(Double minPrice, Double maxPrice) {
-        List<Product> products = productRepository.findByPriceBetween(minPrice, maxPrice);
-        return products.stream()
-                .map(this::convertToResponse)
-                .collect(Collectors.toList());
+        return runListQuery(ProductQuery.priceRange(minPrice, maxPrice),
+                () -> productRepository.findResponsesByPriceBetween(minPrice, maxPrice));
     }
 
-    private String saveImage(MultipartFile file) {
-        try {
-            // Create uploads directory if it doesn't exist
-            Path uploadPath = Paths.get(UPLOAD_DIR);
-            if (!Files.exists(uploadPath)) {
-                Files.createDirectories(uploadPath);
+    // A repeated query is answered from its cached ids and the product cache; only results small enough to hydrate cheaply are cached
+    private List<ProductResponse> runListQuery(ProductQuery query, Supplier<List<ProductResponse>> loader) {
+        return productQueryFlight.execute(query, () -> {
+            long productGeneration = productCache.generation();
+            List<ProductResponse> loaded = new ArrayList<>();
+            List<Long> ids = productQueryCache.get(query, key -> {
+                List<ProductResponse> products = loader.get();
+                loaded.addAll(products);
+                if (products.size() > maxCachedResultSize) {
+                    return null;
+                }
+                Map<Long, ProductResponse> byId = new HashMap<>();
+                products.forEach(product -> byId.put(product.getId(), product));
+                productCache.putAll(byId, productGeneration);
+                return products.stream().map(ProductResponse::getId).toList();
+            });
+            return Collections.unmodifiableList(ids == null || !loaded.isEmpty() ? loaded : hydrate(ids));
+        });
+    }
+
+    // Keeps the cached order; products deleted since are skipped
+    private List<ProductResponse> hydrate(List<Long> ids) {
+        Map<Long, ProductResponse> products = getResponsesById(ids);
+        List<ProductResponse> result = new ArrayList<>(ids.size());
+        for (Long id : ids) {
+            ProductResponse product = products.get(id);
+            if (product != null) {
+                result.add(product);
             }
+        }
+        return result;
+    }
 
-            // Generate unique filename
-            String originalFilename = file.getOriginalFilename();
-            String fileExtension = originalFilename.substring(originalFilename.lastIndexOf("."));
-            String filename = UUID.randomUUID().toString() + fileExtension;
+    // Cached products first, then one IN query (per chunk) for the rest
+    private Map<Long, ProductResponse> getResponsesById(Collection<Long> ids) {
+        return productCache.getAll(ids, missing -> {
+            Map<Long, ProductResponse> loaded = new HashMap<>();
+            for (ProductResponse product : findResponsesByIds(new ArrayList<>(missing))) {
+                loaded.put(product.getId(), product);
+            }
+            return loaded;
+        });
+    }
 
-            // Save file
-            Path filePath = uploadPath.resolve(filename);
-            Files.copy(file.getInputStream(), filePath);
+    // Loads responses for the given ids with IN queries of bounded size, ordered by id
+    private List<ProductResponse> findResponsesByIds(List<Long> ids) {
+        List<ProductResponse> products = new ArrayList<>(ids.size());
+        for (int from = 0; from < ids.size(); from += ID_LOOKUP_CHUNK_SIZE) {
+            List<Long> chunk = ids.subList(from, Math.min(from + ID_LOOKUP_CHUNK_SIZE, ids.size()));
+            products.addAll(productRepository.findResponsesByIdIn(chunk));
+        }
+        products.sort(Comparator.comparing(ProductResponse::getId));
+        return products;
+    }
+
+    // A staged upload is only handed over once its product is saved; otherwise nothing would ever clean it up
+    private Product saveWithStagedImage(Product product, ImageIngestionService.StagedImage stagedImage) {
+        try {
+            return productRepository.save(product);
+        } catch (RuntimeException e) {
+            if (stagedImage != null) {
+                imageIngestionService.discard(stagedImage);
+            }
+            throw e;
+        }
+    }
+
+    // @Positive lets Infinity through, and a non-finite price could not be encoded into a paging cursor
+    private void validatePrice(Double price) {
+        if (price != null && !Double.isFinite(price)) {
+            throw new ValidationException("Price must be a finite number");
+        }
+    }
 
-            // Return relative URL
-            return "/uploads/" + filename;
-        } catch (IOException e) {
-            throw new ValidationException("Failed to save image: " + e.getMessage());
+    private ImageIngestionService.StagedImage stageImage(MultipartFile file) {
+        if (file == null || file.isEmpty()) {
+            return null;
         }
+        return imageIngestionService.stage(file);
     }
 
-    private ProductResponse convertToResponse(Product product) {
+    ProductResponse convertToResponse(Product product) {
         return new ProductResponse(
                 product.getId(),
                 product.getName(),
                 product.getBrand(),
                 product.getPrice(),
                 product.getImageUrl(),
+                product.getImageStatus(),
                 product.getCategory().getName(),
-                product.getDescription()
+                product.getDescription(),
+                product.getVersion(),
+                product.getUpdatedAt()
         );
     }
 } 
\ No newline at end of file
@@ -0,0 +1,48 @@
+package com.shopserve.service;
+
+import com.shopserve.dto.ProductResponse;
+import com.shopserve.repository.ProductRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.scheduler.Schedulers;
+
+import java.util.List;
+
+/**
+ * Streams matching products in id order as a demand-driven Flux. Each keyset page is queried only
+ * when the subscriber has consumed the previous one, so a slow client holds neither a request thread
+ * nor a database connection between pages, and memory stays at one page per stream.
+ */
+@Service
+public class ProductStreamService {
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Value("${shopserve.stream.page-size:500}")
+    private int pageSize;
+
+    public Flux<ProductResponse> streamProducts(String category, String brand, Double minPrice, Double maxPrice,
+                                                Long afterId) {
+        PageRequest page = PageRequest.of(0, pageSize);
+
+        return Flux.<List<ProductResponse>, Long>generate(() -> afterId == null ? 0L : afterId, (lastId, sink) -> {
+                    List<ProductResponse> products = productRepository.findFilteredPageOrderById(
+                            lastId, category, brand, minPrice, maxPrice, page);
+                    if (!products.isEmpty()) {
+                        sink.next(products);
+                    }
+                    if (products.size() < pageSize) {
+                        sink.complete();
+                        return lastId;
+                    }
+                    return products.get(products.size() - 1).getId();
+                })
+                // Blocking JDBC runs on bounded-elastic workers; requests are forwarded there too, so later pages are fetched off the caller's thread
+                .subscribeOn(Schedulers.boundedElastic())
+                .flatMapIterable(products -> products, 1);
+    }
+}
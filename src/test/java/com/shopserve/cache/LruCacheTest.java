@@ -0,0 +1,156 @@
+package com.shopserve.cache;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class LruCacheTest {
+
+    @Test
+    void evictsLeastRecentlyUsedEntry() {
+        LruCache<Integer, String> cache = new LruCache<>("test", 2, null);
+        cache.put(1, "one");
+        cache.put(2, "two");
+        cache.getIfPresent(1);
+        cache.put(3, "three");
+
+        assertEquals("one", cache.getIfPresent(1));
+        assertNull(cache.getIfPresent(2));
+        assertEquals("three", cache.getIfPresent(3));
+        assertEquals(1, cache.stats().getEvictions());
+    }
+
+    @Test
+    void expiredEntriesAreReloaded() throws InterruptedException {
+        LruCache<Integer, String> cache = new LruCache<>("test", 10, Duration.ofMillis(1));
+        cache.put(1, "one");
+        Thread.sleep(5);
+
+        assertEquals("reloaded", cache.get(1, key -> "reloaded"));
+        assertEquals(1, cache.stats().getExpirations());
+    }
+
+    @Test
+    void readThroughLoadsOnlyOnMiss() {
+        LruCache<Integer, String> cache = new LruCache<>("test", 10, null);
+        AtomicInteger loads = new AtomicInteger();
+
+        assertEquals("v1", cache.get(1, key -> "v" + loads.incrementAndGet()));
+        assertEquals("v1", cache.get(1, key -> "v" + loads.incrementAndGet()));
+        assertEquals(1, loads.get());
+        assertEquals(1, cache.stats().getHits());
+        assertEquals(1, cache.stats().getMisses());
+    }
+
+    @Test
+    void getAllLoadsMissesWithOneCall() {
+        LruCache<Integer, String> cache = new LruCache<>("test", 10, null);
+        cache.put(1, "one");
+        AtomicInteger calls = new AtomicInteger();
+
+        Map<Integer, String> values = cache.getAll(List.of(1, 2, 3, 2), missing -> {
+            calls.incrementAndGet();
+            assertEquals(Set.of(2, 3), missing);
+            Map<Integer, String> loaded = new HashMap<>();
+            loaded.put(2, "two");
+            return loaded;
+        });
+
+        assertEquals(Map.of(1, "one", 2, "two"), values);
+        assertEquals(1, calls.get());
+        assertEquals("two", cache.getIfPresent(2));
+        assertNull(cache.getIfPresent(3));
+    }
+
+    @Test
+    void invalidateKeysIfMovesGenerationOnlyWhenSomethingWasRemoved() {
+        LruCache<Integer, String> cache = new LruCache<>("test", 10, null);
+        cache.put(1, "one");
+        long generation = cache.generation();
+
+        cache.invalidateKeysIf(key -> key == 2);
+        assertEquals(generation, cache.generation());
+        assertEquals("one", cache.getIfPresent(1));
+
+        cache.invalidateKeysIf(key -> key == 1);
+        assertNotEquals(generation, cache.generation());
+        assertNull(cache.getIfPresent(1));
+    }
+
+    @Test
+    void loadRacingAnInvalidationOfItsKeyIsNotStored() {
+        LruCache<Integer, String> cache = new LruCache<>("test", 10, null);
+
+        assertEquals("stale", cache.get(1, key -> {
+            cache.invalidateKeysIf(candidate -> candidate == 1);
+            return "stale";
+        }));
+        assertNull(cache.getIfPresent(1));
+
+        assertEquals("stale", cache.get(1, key -> {
+            cache.invalidate(1);
+            return "stale";
+        }));
+        assertNull(cache.getIfPresent(1));
+    }
+
+    @Test
+    void loadRacingAnUnrelatedKeyInvalidationIsStored() {
+        LruCache<Integer, String> cache = new LruCache<>("test", 10, null);
+
+        cache.get(1, key -> {
+            cache.invalidateKeysIf(candidate -> candidate == 2);
+            return "fresh";
+        });
+        assertEquals("fresh", cache.getIfPresent(1));
+    }
+
+    @Test
+    void getAllRacingAnInvalidationOfOneKeyStoresNothing() {
+        LruCache<Integer, String> cache = new LruCache<>("test", 10, null);
+
+        Map<Integer, String> values = cache.getAll(List.of(1, 2), missing -> {
+            cache.invalidateKeysIf(candidate -> candidate == 2);
+            return Map.of(1, "one", 2, "two");
+        });
+
+        assertEquals(Map.of(1, "one", 2, "two"), values);
+        assertNull(cache.getIfPresent(1));
+        assertNull(cache.getIfPresent(2));
+    }
+
+    @Test
+    void putAllIsDiscardedAfterAnInvalidation() {
+        LruCache<Integer, String> cache = new LruCache<>("test", 10, null);
+        cache.put(9, "nine");
+        long generation = cache.generation();
+        cache.invalidateAll();
+
+        cache.putAll(Map.of(1, "one"), generation);
+        assertNull(cache.getIfPresent(1));
+
+        cache.putAll(Map.of(1, "one"), cache.generation());
+        assertEquals("one", cache.getIfPresent(1));
+    }
+
+    @Test
+    void failedLoadDoesNotAffectLaterLoads() {
+        LruCache<Integer, String> cache = new LruCache<>("test", 10, null);
+
+        assertThrows(IllegalStateException.class, () -> cache.get(1, key -> {
+            throw new IllegalStateException("boom");
+        }));
+        assertEquals("one", cache.get(1, key -> "one"));
+        assertEquals("one", cache.getIfPresent(1));
+    }
+}
@@ -0,0 +1,163 @@
+package com.shopserve.cache;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class SingleFlightTest {
+
+    private static final int CALLERS = 8;
+
+    @Test
+    void concurrentCallersShareOneExecution() throws Exception {
+        SingleFlight<String, Object> flight = new SingleFlight<>("test", null);
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        AtomicInteger executions = new AtomicInteger();
+        Object result = new Object();
+
+        ExecutorService pool = Executors.newFixedThreadPool(CALLERS);
+        try {
+            Future<Object> leader = pool.submit(() -> flight.execute("key", () -> {
+                executions.incrementAndGet();
+                started.countDown();
+                await(release);
+                return result;
+            }));
+            assertTrue(started.await(5, TimeUnit.SECONDS));
+
+            List<Future<Object>> followers = new ArrayList<>();
+            for (int i = 1; i < CALLERS; i++) {
+                followers.add(pool.submit(() -> flight.execute("key", () -> {
+                    executions.incrementAndGet();
+                    return new Object();
+                })));
+            }
+            waitForCoalesced(flight, CALLERS - 1);
+            release.countDown();
+
+            assertSame(result, leader.get(5, TimeUnit.SECONDS));
+            for (Future<Object> follower : followers) {
+                assertSame(result, follower.get(5, TimeUnit.SECONDS));
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+        assertEquals(1, executions.get());
+        assertEquals(1, flight.getExecutionCount());
+        assertEquals(CALLERS - 1, flight.getCoalescedCount());
+    }
+
+    @Test
+    void waitingCallersSeeTheLoaderException() throws Exception {
+        SingleFlight<String, String> flight = new SingleFlight<>("test", Duration.ofMinutes(1));
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+
+        ExecutorService pool = Executors.newFixedThreadPool(2);
+        try {
+            Future<String> leader = pool.submit(() -> flight.execute("key", () -> {
+                started.countDown();
+                await(release);
+                throw new IllegalStateException("boom");
+            }));
+            assertTrue(started.await(5, TimeUnit.SECONDS));
+            Future<String> follower = pool.submit(() -> flight.execute("key", () -> "unused"));
+            waitForCoalesced(flight, 1);
+            release.countDown();
+
+            assertCause(IllegalStateException.class, leader);
+            assertCause(IllegalStateException.class, follower);
+        } finally {
+            pool.shutdownNow();
+        }
+
+        // Failures are never reused, even inside the reuse window
+        assertEquals("retried", flight.execute("key", () -> "retried"));
+    }
+
+    @Test
+    void sequentialCallsExecuteAgainWithoutReuseWindow() {
+        SingleFlight<String, Integer> flight = new SingleFlight<>("test", Duration.ZERO);
+        AtomicInteger executions = new AtomicInteger();
+
+        assertEquals(1, (int) flight.execute("key", executions::incrementAndGet));
+        assertEquals(2, (int) flight.execute("key", executions::incrementAndGet));
+        assertEquals(0, flight.getCoalescedCount());
+    }
+
+    @Test
+    void completedResultIsReusedWithinWindowUntilInvalidated() {
+        SingleFlight<String, Integer> flight = new SingleFlight<>("test", Duration.ofMinutes(1));
+        AtomicInteger executions = new AtomicInteger();
+
+        assertEquals(1, (int) flight.execute("key", executions::incrementAndGet));
+        assertEquals(1, (int) flight.execute("key", executions::incrementAndGet));
+        assertEquals(2, (int) flight.execute("other", executions::incrementAndGet));
+
+        flight.invalidateAll();
+        assertEquals(3, (int) flight.execute("key", executions::incrementAndGet));
+    }
+
+    @Test
+    void callerArrivingAfterInvalidationStartsFreshExecution() throws Exception {
+        SingleFlight<String, String> flight = new SingleFlight<>("test", null);
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+
+        ExecutorService pool = Executors.newSingleThreadExecutor();
+        try {
+            Future<String> stale = pool.submit(() -> flight.execute("key", () -> {
+                started.countDown();
+                await(release);
+                return "stale";
+            }));
+            assertTrue(started.await(5, TimeUnit.SECONDS));
+
+            flight.invalidateAll();
+            assertEquals("fresh", flight.execute("key", () -> "fresh"));
+
+            release.countDown();
+            assertEquals("stale", stale.get(5, TimeUnit.SECONDS));
+        } finally {
+            pool.shutdownNow();
+        }
+        assertEquals(2, flight.getExecutionCount());
+    }
+
+    private static void waitForCoalesced(SingleFlight<?, ?> flight, long expected) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (flight.getCoalescedCount() < expected && System.nanoTime() < deadline) {
+            Thread.sleep(1);
+        }
+        assertEquals(expected, flight.getCoalescedCount());
+    }
+
+    private static void assertCause(Class<? extends Throwable> type, Future<?> future) {
+        Throwable thrown = assertThrows(ExecutionException.class,
+                () -> future.get(5, TimeUnit.SECONDS));
+        assertTrue(type.isInstance(thrown.getCause()), "unexpected cause " + thrown.getCause());
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,218 @@
+package com.shopserve.index;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.TreeMap;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class ProductFilterIndexTest {
+
+    private static final String[] CATEGORIES = {"Electronics", "Books", "Clothing", "Garden"};
+    private static final String[] BRANDS = {"Acme", "Globex", "Initech", "Umbrella", "Hooli", "Stark"};
+    private static final Double[] PRICE_BOUNDS = {null, 0.0, 9.99, 25.0, 49.5, 100.0, 250.0};
+
+    @Test
+    void filterAndFacetsMatchBruteForceScan() {
+        Random random = new Random(42);
+        ProductFilterIndex index = new ProductFilterIndex();
+        Map<Long, Row> expected = new HashMap<>();
+
+        // Enough rows for the large categories to switch to bitsets, with repeated prices and churn
+        for (int i = 0; i < 20_000; i++) {
+            long id = 1 + random.nextInt(12_000);
+            if (random.nextInt(10) == 0) {
+                index.remove(id);
+                expected.remove(id);
+            } else {
+                Row row = randomRow(random);
+                index.put(id, row.category, row.brand, row.price);
+                expected.put(id, row);
+            }
+        }
+        assertEquals(expected.size(), index.size());
+
+        for (String category : withNull(CATEGORIES)) {
+            for (String brand : withNull(BRANDS)) {
+                for (Double min : PRICE_BOUNDS) {
+                    for (Double max : PRICE_BOUNDS) {
+                        String filter = category + "/" + brand + "/" + min + "/" + max;
+                        assertEquals(scan(expected, category, brand, min, max),
+                                index.filter(category, brand, min, max), filter);
+                        assertFacetsMatch(expected, index.facets(category, brand, min, max, 10.0), category, brand,
+                                min, max, filter);
+                    }
+                }
+            }
+        }
+    }
+
+    @Test
+    void unknownValuesAndEmptyRangesMatchNothing() {
+        ProductFilterIndex index = new ProductFilterIndex();
+        index.put(1, "Books", "Acme", 10.0);
+
+        assertEquals(List.of(), index.filter("Toys", null, null, null));
+        assertEquals(List.of(), index.filter(null, "Nobody", null, null));
+        assertEquals(List.of(), index.filter(null, null, 20.0, 5.0));
+        assertEquals(0L, index.facets("Toys", null, null, null, 10.0).getTotal());
+    }
+
+    @Test
+    void putUpdateAndRemoveOfSameId() {
+        ProductFilterIndex index = new ProductFilterIndex();
+        index.put(7, "Books", "Acme", 10.0);
+        index.put(7, "Garden", "Globex", 30.0);
+
+        assertEquals(1, index.size());
+        assertEquals(List.of(), index.filter("Books", null, null, null));
+        assertEquals(List.of(), index.filter(null, "Acme", null, null));
+        assertEquals(List.of(), index.filter(null, null, 5.0, 15.0));
+        assertEquals(List.of(7L), index.filter("Garden", "Globex", 30.0, 30.0));
+
+        index.remove(7);
+        assertEquals(0, index.size());
+        assertEquals(List.of(), index.filter(null, null, null, null));
+        index.remove(7);
+        assertEquals(0, index.size());
+
+        // The freed row is reused and must not carry anything over from its previous product
+        index.put(8, "Books", "Acme", 10.0);
+        index.put(7, "Clothing", "Hooli", 10.0);
+        assertEquals(2, index.size());
+        assertEquals(List.of(8L), index.filter("Books", null, null, null));
+        assertEquals(List.of(7L), index.filter("Clothing", "Hooli", null, null));
+        assertEquals(List.of(7L, 8L), index.filter(null, null, 10.0, 10.0));
+    }
+
+    @Test
+    void equalPricesAreReturnedInIdOrder() {
+        ProductFilterIndex index = new ProductFilterIndex();
+        long[] ids = {50, 3, 41, 17, 8, 29};
+        for (long id : ids) {
+            index.put(id, "Books", "Acme", 19.99);
+        }
+        index.put(1, "Books", "Acme", 5.0);
+        index.put(99, "Books", "Acme", 40.0);
+
+        assertEquals(List.of(3L, 8L, 17L, 29L, 41L, 50L), index.filter(null, null, 19.99, 19.99));
+        assertEquals(List.of(1L, 3L, 8L, 17L, 29L, 41L, 50L, 99L), index.filter("Books", null, null, null));
+
+        // Removing and re-adding ties in the middle of the run leaves the price column consistent
+        index.remove(17);
+        index.remove(3);
+        index.put(17, "Books", "Acme", 19.99);
+        assertEquals(List.of(8L, 17L, 29L, 41L, 50L), index.filter(null, "Acme", 19.99, 19.99));
+        assertEquals(List.of(1L, 8L, 17L, 29L, 41L, 50L), index.filter(null, null, null, 19.99));
+    }
+
+    @Test
+    void renamedCategoryKeepsItsProducts() {
+        ProductFilterIndex index = new ProductFilterIndex();
+        index.put(1, "Books", "Acme", 10.0);
+        index.put(2, "Books", "Globex", 20.0);
+        index.put(3, "Garden", "Acme", 30.0);
+
+        index.renameCategory("Books", "Literature");
+
+        assertEquals(List.of(), index.filter("Books", null, null, null));
+        assertEquals(List.of(1L, 2L), index.filter("Literature", null, null, null));
+        assertEquals(Map.of("Literature", 2L, "Garden", 1L), index.facets(null, null, null, null, 10.0).getCategories());
+
+        // The old name is free again and starts out empty
+        index.put(4, "Books", "Acme", 40.0);
+        assertEquals(List.of(4L), index.filter("Books", null, null, null));
+        assertEquals(List.of(1L, 2L), index.filter("Literature", null, null, null));
+    }
+
+    @Test
+    void renamingOntoExistingCategoryMergesTheRows() {
+        ProductFilterIndex index = new ProductFilterIndex();
+        index.put(1, "Books", "Acme", 10.0);
+        index.put(2, "Books", "Globex", 20.0);
+        index.put(3, "Literature", "Acme", 30.0);
+
+        index.renameCategory("Books", "Literature");
+
+        assertEquals(List.of(), index.filter("Books", null, null, null));
+        assertEquals(List.of(1L, 2L, 3L), index.filter("Literature", null, null, null));
+        assertEquals(List.of(1L, 3L), index.filter("Literature", "Acme", null, null));
+        assertEquals(Map.of("Literature", 3L), index.facets(null, null, null, null, 10.0).getCategories());
+
+        // Merged rows move and leave like any other row of the target category
+        index.put(1, "Literature", "Acme", 50.0);
+        index.remove(2);
+        assertEquals(List.of(1L, 3L), index.filter("Literature", null, null, null));
+        assertEquals(List.of(1L), index.filter("Literature", null, 40.0, null));
+
+        index.renameCategory("Missing", "Literature");
+        assertEquals(List.of(1L, 3L), index.filter("Literature", null, null, null));
+    }
+
+    private static void assertFacetsMatch(Map<Long, Row> rows, FacetCounts facets, String category, String brand,
+                                          Double min, Double max, String filter) {
+        Map<String, Long> categories = new HashMap<>();
+        Map<String, Long> brands = new HashMap<>();
+        Map<Long, Long> buckets = new HashMap<>();
+        for (Row row : rows.values()) {
+            if (row.matches(category, brand, min, max)) {
+                categories.merge(row.category, 1L, Long::sum);
+                brands.merge(row.brand, 1L, Long::sum);
+                buckets.merge((long) Math.floor(row.price / 10.0), 1L, Long::sum);
+            }
+        }
+        assertEquals(categories, facets.getCategories(), filter);
+        assertEquals(brands, facets.getBrands(), filter);
+        assertEquals(buckets, facets.getPriceBuckets(), filter);
+    }
+
+    private static List<Long> scan(Map<Long, Row> rows, String category, String brand, Double min, Double max) {
+        List<Long> ids = new ArrayList<>();
+        new TreeMap<>(rows).forEach((id, row) -> {
+            if (row.matches(category, brand, min, max)) {
+                ids.add(id);
+            }
+        });
+        return ids;
+    }
+
+    private static Row randomRow(Random random) {
+        // Skewed so one category and one brand are dense while the rest stay sparse
+        String category = random.nextInt(3) == 0 ? CATEGORIES[random.nextInt(CATEGORIES.length)] : CATEGORIES[0];
+        String brand = random.nextInt(4) == 0 ? BRANDS[random.nextInt(BRANDS.length)] : BRANDS[0];
+        double price = random.nextInt(5) == 0 ? 49.5 : random.nextInt(30_000) / 100.0;
+        return new Row(category, brand, price);
+    }
+
+    private static List<String> withNull(String[] values) {
+        List<String> list = new ArrayList<>();
+        list.add(null);
+        list.addAll(List.of(values));
+        return list;
+    }
+
+    private static class Row {
+
+        private final String category;
+        private final String brand;
+        private final double price;
+
+        Row(String category, String brand, double price) {
+            this.category = category;
+            this.brand = brand;
+            this.price = price;
+        }
+
+        boolean matches(String category, String brand, Double min, Double max) {
+            return (category == null || category.equals(this.category))
+                    && (brand == null || brand.equals(this.brand))
+                    && (min == null || price >= min)
+                    && (max == null || price <= max);
+        }
+    }
+}
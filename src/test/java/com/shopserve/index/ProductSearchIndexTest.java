@@ -0,0 +1,172 @@
+package com.shopserve.index;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class ProductSearchIndexTest {
+
+    // No word is a prefix of another, so prefix expansion of the last token only finds the token itself
+    private static final String[] WORDS = {"alpha", "bravo", "charlie", "delta", "echo", "foxtrot", "golf", "hotel"};
+
+    @Test
+    void nameMatchesOutrankDescriptionMatches() {
+        ProductSearchIndex index = new ProductSearchIndex();
+        index.put(1, "Travel bag", "Acme", "Fits a laptop");
+        index.put(2, "Laptop", "Acme", "Fits a bag");
+
+        assertEquals(List.of(2L, 1L), ids(index.search("laptop", 10)));
+    }
+
+    @Test
+    void rareTermsOutweighCommonTerms() {
+        ProductSearchIndex index = new ProductSearchIndex();
+        for (long id = 1; id <= 5; id++) {
+            index.put(id, "Laptop " + id, "Acme", null);
+        }
+        index.put(6, "Sturdy case", "Acme", null);
+
+        assertEquals(6L, index.search("sturdy laptop", 10).get(0).getProductId());
+        assertEquals(6, index.search("sturdy laptop", 10).size());
+    }
+
+    @Test
+    void shorterDocumentsRankHigherForSameFrequency() {
+        ProductSearchIndex index = new ProductSearchIndex();
+        index.put(1, "Kettle", "Acme", "Stainless steel body with a large capacity and a long cord");
+        index.put(2, "Kettle", "Acme", null);
+
+        assertEquals(List.of(2L, 1L), ids(index.search("kettle", 10)));
+    }
+
+    @Test
+    void exactTermOutranksPrefixCompletion() {
+        ProductSearchIndex index = new ProductSearchIndex();
+        index.put(1, "Laptop stand", "Acme", null);
+        index.put(2, "Lap tray", "Acme", null);
+
+        assertEquals(List.of(2L, 1L), ids(index.search("lap", 10)));
+        assertEquals(List.of(1L), ids(index.search("lapt", 10)));
+        assertEquals(List.of(), ids(index.search("the", 10)));
+    }
+
+    @Test
+    void equalScoresAreOrderedByIdAndLimitKeepsLowestIds() {
+        ProductSearchIndex index = new ProductSearchIndex();
+        for (long id : new long[] {9, 2, 7, 5}) {
+            index.put(id, "Desk lamp", "Acme", null);
+        }
+
+        assertEquals(List.of(2L, 5L, 7L, 9L), ids(index.search("lamp", 10)));
+        assertEquals(List.of(2L, 5L), ids(index.search("lamp", 2)));
+    }
+
+    @Test
+    void updateReplacesTermsAndRemoveDropsDocument() {
+        ProductSearchIndex index = new ProductSearchIndex();
+        index.put(1, "Red shoe", "Acme", null);
+        index.put(2, "Red hat", "Acme", null);
+        index.put(1, "Blue boot", "Acme", null);
+
+        assertEquals(2, index.size());
+        assertEquals(List.of(2L), ids(index.search("red", 10)));
+        assertEquals(List.of(), ids(index.search("shoe", 10)));
+        assertEquals(List.of(1L), ids(index.search("blue boot", 10)));
+
+        index.remove(1);
+        index.remove(1);
+        assertEquals(1, index.size());
+        assertEquals(List.of(), ids(index.search("blue", 10)));
+
+        // The freed row is reused by the next product without inheriting postings
+        index.put(3, "Green scarf", "Acme", null);
+        assertEquals(List.of(3L), ids(index.search("green", 10)));
+        assertEquals(List.of(), ids(index.search("boot", 10)));
+        assertEquals(List.of(2L), ids(index.search("red", 10)));
+    }
+
+    @Test
+    void scoresMatchBm25ReferenceAfterChurn() {
+        Random random = new Random(11);
+        ProductSearchIndex index = new ProductSearchIndex();
+        Map<Long, Map<String, Integer>> documents = new HashMap<>();
+
+        for (int i = 0; i < 6000; i++) {
+            long id = 1 + random.nextInt(3000);
+            if (random.nextInt(8) == 0) {
+                index.remove(id);
+                documents.remove(id);
+                continue;
+            }
+            String name = randomText(random, 1 + random.nextInt(3));
+            String description = randomText(random, random.nextInt(6));
+            index.put(id, name, "Acme", description);
+
+            // Same field weights as the index: name 3, brand 2, description 1
+            Map<String, Integer> frequencies = new HashMap<>();
+            ProductSearchIndex.tokenize(name).forEach(token -> frequencies.merge(token, 3, Integer::sum));
+            frequencies.merge("acme", 2, Integer::sum);
+            ProductSearchIndex.tokenize(description).forEach(token -> frequencies.merge(token, 1, Integer::sum));
+            documents.put(id, frequencies);
+        }
+        assertEquals(documents.size(), index.size());
+
+        for (String query : new String[] {"alpha", "bravo hotel", "golf echo delta", "acme foxtrot"}) {
+            List<ProductSearchIndex.SearchHit> hits = index.search(query, 50);
+            List<ProductSearchIndex.SearchHit> expected = reference(documents, ProductSearchIndex.tokenize(query), 50);
+            assertEquals(ids(expected), ids(hits), query);
+            for (int i = 0; i < hits.size(); i++) {
+                assertEquals(expected.get(i).getScore(), hits.get(i).getScore(), 1e-3);
+            }
+        }
+    }
+
+    private static List<ProductSearchIndex.SearchHit> reference(Map<Long, Map<String, Integer>> documents,
+                                                                List<String> tokens, int limit) {
+        double averageLength = documents.values().stream()
+                .mapToInt(frequencies -> frequencies.values().stream().mapToInt(Integer::intValue).sum())
+                .average().orElse(0);
+        List<ProductSearchIndex.SearchHit> hits = new ArrayList<>();
+        documents.forEach((id, frequencies) -> {
+            int length = frequencies.values().stream().mapToInt(Integer::intValue).sum();
+            double score = 0;
+            boolean matched = false;
+            for (String token : tokens) {
+                Integer tf = frequencies.get(token);
+                if (tf == null) {
+                    continue;
+                }
+                matched = true;
+                long containing = documents.values().stream().filter(doc -> doc.containsKey(token)).count();
+                double idf = Math.log(1 + (documents.size() - containing + 0.5) / (containing + 0.5));
+                double norm = 1.2 * (1 - 0.75 + 0.75 * length / averageLength);
+                score += idf * (tf * 2.2) / (tf + norm);
+            }
+            if (matched) {
+                hits.add(new ProductSearchIndex.SearchHit(id, (float) score));
+            }
+        });
+        hits.sort(Comparator.comparingDouble(ProductSearchIndex.SearchHit::getScore).reversed()
+                .thenComparingLong(ProductSearchIndex.SearchHit::getProductId));
+        return hits.subList(0, Math.min(limit, hits.size()));
+    }
+
+    private static String randomText(Random random, int words) {
+        StringBuilder text = new StringBuilder();
+        for (int i = 0; i < words; i++) {
+            text.append(WORDS[random.nextInt(WORDS.length)]).append(' ');
+        }
+        return text.toString();
+    }
+
+    private static List<Long> ids(List<ProductSearchIndex.SearchHit> hits) {
+        return hits.stream().map(ProductSearchIndex.SearchHit::getProductId).toList();
+    }
+}
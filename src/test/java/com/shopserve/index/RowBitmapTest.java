@@ -0,0 +1,64 @@
+package com.shopserve.index;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.TreeSet;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class RowBitmapTest {
+
+    @Test
+    void matchesSortedSetAcrossArrayAndBitsetForms() {
+        Random random = new Random(7);
+        RowBitmap bitmap = new RowBitmap();
+        TreeSet<Integer> expected = new TreeSet<>();
+
+        // Grow well past the array limit, shrink back below half of it, then grow again
+        for (int phase = 0; phase < 3; phase++) {
+            int operations = phase == 1 ? 30_000 : 12_000;
+            for (int i = 0; i < operations; i++) {
+                int row = random.nextInt(10_000);
+                if (phase == 1 || random.nextInt(5) == 0) {
+                    bitmap.remove(row);
+                    expected.remove(row);
+                } else {
+                    bitmap.add(row);
+                    expected.add(row);
+                }
+            }
+            assertSameRows(expected, bitmap);
+        }
+    }
+
+    @Test
+    void addAndRemoveAreIdempotent() {
+        RowBitmap bitmap = new RowBitmap();
+        bitmap.add(3);
+        bitmap.add(3);
+        bitmap.add(1);
+        assertEquals(2, bitmap.cardinality());
+
+        bitmap.remove(2);
+        bitmap.remove(3);
+        bitmap.remove(3);
+        assertEquals(1, bitmap.cardinality());
+        assertTrue(bitmap.contains(1));
+        assertFalse(bitmap.contains(3));
+    }
+
+    private static void assertSameRows(TreeSet<Integer> expected, RowBitmap bitmap) {
+        assertEquals(expected.size(), bitmap.cardinality());
+        List<Integer> rows = new ArrayList<>();
+        bitmap.forEach(rows::add);
+        assertEquals(new ArrayList<>(expected), rows);
+        for (int row = 0; row < 10_000; row += 7) {
+            assertEquals(expected.contains(row), bitmap.contains(row));
+        }
+    }
+}
@@ -0,0 +1,88 @@
+package com.shopserve.service;
+
+import com.shopserve.exception.ValidationException;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class ProductCursorTest {
+
+    @Test
+    void roundTripsEverySortField() {
+        ProductCursor byId = roundTrip(new ProductCursor(ProductCursor.SortField.ID, 42L, null));
+        assertEquals(ProductCursor.SortField.ID, byId.getSortField());
+        assertEquals(42L, (long) byId.getLastId());
+
+        ProductCursor byPrice = roundTrip(new ProductCursor(ProductCursor.SortField.PRICE, 7L, String.valueOf(1.0E7)));
+        assertEquals(ProductCursor.SortField.PRICE, byPrice.getSortField());
+        assertEquals(7L, (long) byPrice.getLastId());
+        assertEquals(1.0E7, (double) byPrice.getLastPrice());
+
+        // Names may contain the separator and any non-ASCII text
+        ProductCursor byName = roundTrip(new ProductCursor(ProductCursor.SortField.NAME, 9L, "Caf\u00e9: 2-in-1 grinder"));
+        assertEquals(ProductCursor.SortField.NAME, byName.getSortField());
+        assertEquals(9L, (long) byName.getLastId());
+        assertEquals("Caf\u00e9: 2-in-1 grinder", byName.getLastName());
+    }
+
+    @Test
+    void firstCursorStartsBeforeEveryRow() {
+        ProductCursor first = ProductCursor.first(ProductCursor.SortField.PRICE);
+        assertEquals(0L, (long) first.getLastId());
+        assertEquals(0.0, (double) first.getLastPrice());
+        assertEquals("", ProductCursor.first(ProductCursor.SortField.NAME).getLastName());
+    }
+
+    @Test
+    void malformedCursorsAreRejectedAsValidationErrors() {
+        String[] tokens = {
+                "",
+                "not base64!",
+                "%%%",
+                encode("PRICE:1"),
+                encode("SIZE:1:x"),
+                encode("price:1:10.0"),
+                encode("ID:one:"),
+                encode("ID::"),
+                encode("PRICE:1:"),
+                encode("PRICE:1:cheap"),
+                encode("PRICE:1:NaN"),
+                encode("PRICE:1:Infinity"),
+                encode("NAME:99999999999999999999:x")
+        };
+        for (String token : tokens) {
+            assertThrows(ValidationException.class, () -> ProductCursor.decode(token), token);
+        }
+        assertThrows(ValidationException.class, () -> ProductCursor.decode(null));
+    }
+
+    @Test
+    void tamperedCursorIsRejectedAsValidationError() {
+        String token = new ProductCursor(ProductCursor.SortField.PRICE, 12L, "19.99").encode();
+        for (int i = 0; i < token.length(); i++) {
+            char[] chars = token.toCharArray();
+            chars[i] = chars[i] == 'A' ? '*' : 'A';
+            String tampered = new String(chars);
+            try {
+                // A change can still decode to another well-formed cursor; anything else must be a validation error
+                ProductCursor.decode(tampered);
+            } catch (ValidationException expected) {
+                // rejected as a client error
+            }
+        }
+    }
+
+    private static ProductCursor roundTrip(ProductCursor cursor) {
+        String token = cursor.encode();
+        assertEquals(token, ProductCursor.decode(token).encode());
+        return ProductCursor.decode(token);
+    }
+
+    private static String encode(String raw) {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+}
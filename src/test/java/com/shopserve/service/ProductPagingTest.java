@@ -0,0 +1,92 @@
+package com.shopserve.service;
+
+import com.shopserve.dto.ProductPageResponse;
+import com.shopserve.dto.ProductRequest;
+import com.shopserve.dto.ProductResponse;
+import com.shopserve.entity.Category;
+import com.shopserve.entity.Product;
+import com.shopserve.exception.ValidationException;
+import com.shopserve.repository.CategoryRepository;
+import com.shopserve.repository.ProductRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+@SpringBootTest
+@Transactional
+class ProductPagingTest {
+
+    private static final double TIED_PRICE = 123.45;
+
+    @Autowired
+    private ProductService productService;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private CategoryRepository categoryRepository;
+
+    @Test
+    void equalPricesAcrossPageBoundariesAreNeitherSkippedNorRepeated() {
+        Category category = categoryRepository.save(new Category("Paging Ties", null));
+        List<Long> tiedIds = new ArrayList<>();
+        for (int i = 0; i < 7; i++) {
+            tiedIds.add(productRepository.save(new Product("Tied " + i, "Acme", TIED_PRICE, null, category)).getId());
+        }
+        productRepository.flush();
+
+        // A page size of 3 puts page boundaries in the middle of the tied run
+        List<ProductResponse> walked = new ArrayList<>();
+        String cursor = null;
+        do {
+            ProductPageResponse page = productService.getProductPage(cursor, 3, "price");
+            walked.addAll(page.getContent());
+            cursor = page.getNextCursor();
+        } while (cursor != null);
+
+        List<ProductResponse> expected = productRepository.findAllResponses().stream()
+                .sorted(Comparator.comparing(ProductResponse::getPrice).thenComparing(ProductResponse::getId))
+                .toList();
+        assertEquals(ids(expected), ids(walked));
+        assertEquals(walked.size(), new HashSet<>(ids(walked)).size());
+        assertEquals(tiedIds, walked.stream()
+                .filter(product -> product.getPrice() == TIED_PRICE)
+                .map(ProductResponse::getId)
+                .toList());
+    }
+
+    @Test
+    void malformedCursorIsAValidationError() {
+        assertThrows(ValidationException.class, () -> productService.getProductPage("garbage!", 3, null));
+        String priceCursor = productService.getProductPage(null, 1, "price").getNextCursor();
+        assertNotNull(priceCursor);
+        assertThrows(ValidationException.class, () -> productService.getProductPage(priceCursor, 3, "name"));
+    }
+
+    @Test
+    void nonFinitePricesAreRejectedOnWrite() {
+        Category category = categoryRepository.save(new Category("Paging Prices", null));
+        ProductRequest request = new ProductRequest("Unbounded", "Acme", Double.POSITIVE_INFINITY, category.getId(), null);
+        assertThrows(ValidationException.class, () -> productService.createProduct(request));
+
+        Product product = productRepository.save(new Product("Bounded", "Acme", 10.0, null, category));
+        request.setPrice(Double.NaN);
+        assertThrows(ValidationException.class, () -> productService.updateProduct(product.getId(), request));
+    }
+
+    private static List<Long> ids(List<ProductResponse> products) {
+        return products.stream().map(ProductResponse::getId).collect(Collectors.toList());
+    }
+}
@@ -0,0 +1,125 @@
+package com.shopserve.service;
+
+import com.shopserve.dto.ProductResponse;
+import com.shopserve.entity.Category;
+import com.shopserve.entity.Product;
+import com.shopserve.repository.CategoryRepository;
+import com.shopserve.repository.ProductRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+
+// ProductQuery.matches decides which cached results a write invalidates, so it must agree with the SQL it stands for
+@SpringBootTest
+@Transactional
+class ProductQueryTest {
+
+    private static final List<String> CATEGORIES = Arrays.asList(null, "Query Gadgets", "query gadgets", "QUERY GADGETS");
+    private static final List<String> BRANDS = Arrays.asList(null, "Zeta", "zeta", "ZETA", "Omega");
+    private static final List<Double> PRICES = Arrays.asList(null, -0.0, 0.0, 0.01, 10.0, 10.5, 999.0, 1_000_000.0);
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private CategoryRepository categoryRepository;
+
+    private List<ProductResponse> products;
+
+    @BeforeEach
+    void setUp() {
+        Category upper = categoryRepository.save(new Category("Query Gadgets", null));
+        Category lower = categoryRepository.save(new Category("query gadgets", null));
+        productRepository.save(new Product("Upper Zeta", "Zeta", 10.0, null, upper));
+        productRepository.save(new Product("Upper lower zeta", "zeta", 10.5, null, upper));
+        productRepository.save(new Product("Lower ZETA", "ZETA", 0.01, null, lower));
+        productRepository.save(new Product("Lower Zeta", "Zeta", 1_000_000.0, null, lower));
+        productRepository.save(new Product("Lower Omega", "Omega", 999.0, null, lower));
+        productRepository.flush();
+        products = productRepository.findAllResponses();
+    }
+
+    @Test
+    void filterMatchesRepository() {
+        for (String category : CATEGORIES) {
+            for (String brand : BRANDS) {
+                for (Double min : PRICES) {
+                    for (Double max : PRICES) {
+                        assertAgrees(ProductQuery.filter(category, brand, min, max),
+                                productRepository.findResponsesByFilters(category, brand, min, max));
+                    }
+                }
+            }
+        }
+    }
+
+    @Test
+    void categoryMatchesRepository() {
+        for (String category : CATEGORIES) {
+            assertAgrees(ProductQuery.category(category), productRepository.findResponsesByCategoryName(category));
+        }
+    }
+
+    @Test
+    void brandMatchesRepository() {
+        for (String brand : BRANDS) {
+            assertAgrees(ProductQuery.brand(brand), productRepository.findResponsesByBrand(brand));
+        }
+    }
+
+    @Test
+    void priceRangeMatchesRepository() {
+        for (Double min : PRICES) {
+            for (Double max : PRICES) {
+                assertAgrees(ProductQuery.priceRange(min, max), productRepository.findResponsesByPriceBetween(min, max));
+            }
+        }
+    }
+
+    @Test
+    void negativeZeroSelectsTheSameRowsAsZero() {
+        assertEquals(ProductQuery.filter(null, null, -0.0, null), ProductQuery.filter(null, null, 0.0, null));
+        assertEquals(ProductQuery.priceRange(-0.0, -0.0).hashCode(), ProductQuery.priceRange(0.0, 0.0).hashCode());
+        assertEquals(ids(productRepository.findResponsesByFilters(null, null, -0.0, 10.0)),
+                ids(productRepository.findResponsesByFilters(null, null, 0.0, 10.0)));
+    }
+
+    @Test
+    void comparisonsAreCaseSensitive() {
+        ProductQuery query = ProductQuery.filter("Query Gadgets", "Zeta", null, null);
+        assertEquals(1, productRepository.findResponsesByFilters("Query Gadgets", "Zeta", null, null).size());
+        assertEquals(1L, products.stream().filter(query::matches).count());
+        assertFalse(ProductQuery.brand("zeta").matches(find("Upper Zeta")));
+        assertFalse(ProductQuery.category("QUERY GADGETS").matches(find("Lower ZETA")));
+    }
+
+    private void assertAgrees(ProductQuery query, List<ProductResponse> fromRepository) {
+        List<ProductResponse> matched = new ArrayList<>();
+        for (ProductResponse product : products) {
+            if (query.matches(product)) {
+                matched.add(product);
+            }
+        }
+        assertEquals(ids(fromRepository), ids(matched), query.toString());
+    }
+
+    private ProductResponse find(String name) {
+        return products.stream().filter(product -> product.getName().equals(name)).findFirst().orElseThrow();
+    }
+
+    private static Set<Long> ids(List<ProductResponse> products) {
+        return products.stream().map(ProductResponse::getId).collect(Collectors.toCollection(TreeSet::new));
+    }
+}
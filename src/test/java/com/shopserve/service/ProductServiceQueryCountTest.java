@@ -0,0 +1,111 @@
+package com.shopserve.service;
+
+import com.shopserve.cache.LruCache;
+import com.shopserve.dto.ProductBatchResponse;
+import com.shopserve.dto.ProductResponse;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+class ProductServiceQueryCountTest {
+
+    @Autowired
+    private ProductService productService;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private LruCache<Long, ProductResponse> productCache;
+
+    private Statistics statistics;
+
+    @BeforeEach
+    void setUp() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+    }
+
+    @Test
+    void getAllProductsRunsSingleStatement() {
+        assertSingleStatement(productService.getAllProducts());
+    }
+
+    @Test
+    void filterProductsRunsSingleStatement() {
+        assertSingleStatement(productService.filterProducts("Electronics", null, null, 2000.0));
+    }
+
+    @Test
+    void getProductsByCategoryRunsSingleStatement() {
+        assertSingleStatement(productService.getProductsByCategory("Clothing"));
+    }
+
+    @Test
+    void getProductsByBrandRunsSingleStatement() {
+        assertSingleStatement(productService.getProductsByBrand("Apple"));
+    }
+
+    @Test
+    void getProductsByPriceRangeRunsSingleStatement() {
+        assertSingleStatement(productService.getProductsByPriceRange(0.0, 5000.0));
+    }
+
+    @Test
+    void getProductPageRunsSingleStatement() {
+        assertSingleStatement(productService.getProductPage(null, 3, "price").getContent());
+    }
+
+    @Test
+    void getProductsByIdsRunsSingleStatementAndThenServesFromCache() {
+        List<ProductResponse> all = productService.getAllProducts();
+        Long first = all.get(0).getId();
+        Long last = all.get(all.size() - 1).getId();
+        productCache.invalidateAll();
+        statistics.clear();
+
+        ProductBatchResponse batch = productService.getProductsByIds(List.of(last, Long.MAX_VALUE, first, last));
+        assertEquals(1, statistics.getPrepareStatementCount());
+        assertEquals(List.of(last, Long.MAX_VALUE, first, last),
+                batch.getItems().stream().map(ProductBatchResponse.Item::getId).toList());
+        assertTrue(batch.getItems().get(0).isFound());
+        assertNotNull(batch.getItems().get(0).getProduct().getCategoryName());
+        assertFalse(batch.getItems().get(1).isFound());
+        assertNull(batch.getItems().get(1).getProduct());
+        assertEquals(3, batch.getFound());
+        assertEquals(1, batch.getNotFound());
+
+        statistics.clear();
+        productService.getProductsByIds(List.of(first, last));
+        assertEquals(0, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    void repeatedListQueryIsServedFromQueryCache() {
+        assertSingleStatement(productService.getProductsByBrand("Nike"));
+
+        statistics.clear();
+        List<ProductResponse> repeated = productService.getProductsByBrand("Nike");
+        assertFalse(repeated.isEmpty());
+        assertEquals(0, statistics.getPrepareStatementCount());
+    }
+
+    private void assertSingleStatement(List<ProductResponse> products) {
+        assertFalse(products.isEmpty());
+        products.forEach(product -> assertNotNull(product.getCategoryName()));
+        assertEquals(1, statistics.getPrepareStatementCount());
+    }
+}